@@ -8,7 +8,7 @@ public class AI extends Player {
 	private AIMemory person;	//AI Memory of all suspects.
 	private AIMemory room;		//AI Memory of all locations.
 
-	private Random rand = new Random();
+	private AIParameters params;	//Tuned weighting, loaded from AIParameters.FILE.
 
 	AI (int num, ArrayList<Card> h, GamePiece p) {
 
@@ -16,18 +16,19 @@ public class AI extends Player {
 		super(num,h,p);
 
 		//Instantiate Memories.
-		weapon = new AIMemory();
-		person = new AIMemory();
-		room = new AIMemory();
+		params = AIParameters.load();
+		weapon = new AIMemory(params.getThreshold());
+		person = new AIMemory(params.getThreshold());
+		room = new AIMemory(params.getThreshold());
 
 		//Populate Memories with Card enum.
 		for(Card card : Card.values()){
 			if(card.getType() == 1)
-				weapon.addToFront(card, 1);
+				weapon.addToFront(card, params.getInitialWeight());
 			else if(card.getType() == 2)
-				room.addToFront(card, 1);
+				room.addToFront(card, params.getInitialWeight());
 			else
-				person.addToFront(card, 1);
+				person.addToFront(card, params.getInitialWeight());
 		}
 
 		//Remove AI's hand from memory.
@@ -39,24 +40,23 @@ public class AI extends Player {
 	public Card getWeaponGuess()  { return weapon.getAICardGuess(); }
 
 
-	/** setDestination randomly assigns new destination to AI based on AI's next location guess.  */
+	/** setDestination heads for the likeliest room that can be reached in the fewest expected turns.
+	 *  If the AI is already in the only likely room, it leaves for the room with the quickest round trip back.  */
 	public void setDestination() {
 
-		Card temp = room.getAICardGuess();
-		Rooms randomRoom;
+		Rooms location = getMovement().getLocation();
+		int position = Reachability.position(location.ordinal(), 0);
 
-		//Room is not room that AI is in.
-		if (temp != (getMovement().getEquivalentRoom()))
-			getMovement().setDestination(findEquivalent(temp));
+		//Rooms weighted above the threshold, other than the one AI is in.
+		int rooms = 0;
+		for (Card card : GameState.cardsOf(room.getCandidateMask()))
+			rooms |= 1 << Equivalent.cardRoom(card.ordinal());
+		rooms &= ~(1 << location.ordinal());
 
-		//Only one room left, and AI is in it.
-		else {
-			do {
-				randomRoom = Rooms.values()[rand.nextInt(9)];
-			} while (randomRoom == findEquivalent(temp));
-
-			getMovement().setDestination(randomRoom);
-		}
+		if (rooms != 0)
+			getMovement().setDestination(Rooms.values()[Reachability.nearest(position, rooms)]);
+		else
+			getMovement().setDestination(Rooms.values()[BoardGrid.closestRoom(location.ordinal())]);
 	}
 
 	/** removeStartingCards removes AI's hand from AI Memory.  */
@@ -72,7 +72,7 @@ public class AI extends Player {
 		}
 	}
 	
-	/** addWeight adjusts weight of given Cards by 0.8.
+	/** addWeight raises the weight of given Cards by the tuned weight bump.
 	 * @param guess Cards in other player's assumption, to be re-weighted.  */
 	public void addWeight(ArrayList<Card> guess) {
 
@@ -82,26 +82,14 @@ public class AI extends Player {
 
 			//Adjust weight for card, given type.
 			if (card.getType() == 1 && weapon.contains(card))
-				weapon.getNodeOfCard(card).setWeight(weapon.getNodeOfCard(card).getWeight() + 0.8);
+				weapon.getNodeOfCard(card).setWeight(weapon.getNodeOfCard(card).getWeight() + params.getWeightBump());
 			else if (card.getType() == 2 && room.contains(card))
-				room.getNodeOfCard(card).setWeight(room.getNodeOfCard(card).getWeight() + 0.8);
+				room.getNodeOfCard(card).setWeight(room.getNodeOfCard(card).getWeight() + params.getWeightBump());
 			else if (card.getType() == 3 && person.contains(card))
-				person.getNodeOfCard(card).setWeight(person.getNodeOfCard(card).getWeight() + 0.8);
+				person.getNodeOfCard(card).setWeight(person.getNodeOfCard(card).getWeight() + params.getWeightBump());
 		}
 	}
 
-	/** findEquivalent takes a room card and returns the equivalent Room eNum.
-	 * @param card Card to find room equivalent of.
-	 * @return Rooms eNum equal to given card.  */
-	private Rooms findEquivalent(Card card){
-
-		for(Rooms rooms : Rooms.values())
-			if(card.getName().equals(rooms.getName()))
-				return rooms;
-
-		return null;
-	}
-
 	/** getNextAction determines AI next move, based off of current position
 	 * @param turnStart If it is the beginning of AI turn.
 	 * @return Integer representing next action:
@@ -126,18 +114,77 @@ public class AI extends Player {
 	 *  @return True if all Memories contain one item.  */
 	private boolean shouldMakeAccusation(){
 		return weapon.size() == 1 && room.size() == 1 && person.size() ==1
-				&& (findEquivalent(room.getFrontData()) == getMovement().getLocation());
+				&& (Equivalent.room(room.getFrontData()) == getMovement().getLocation());
 	}
 
 	/** removeCard removes given Card from Memory.
+	 *  Being shown the last card left of a type means an earlier undisproved assumption was a bluff,
+	 *  so that type starts over from every other card not in hand, rather than leaving Memory empty.
 	 * @param card Card to be removed.  */
 	public void removeCard(Card card){
-		if (card.getType() == 1 && weapon.contains(card))
-			weapon.remove(card);
-		else if (card.getType() == 2 && room.contains(card))
-			room.remove(card);
-		else if (card.getType() == 3 && person.contains(card))
-			person.remove(card);
+		AIMemory memory = memoryOf(card);
+		if (!memory.contains(card))
+			return;
+
+		if (memory.size() == 1) {
+			memory.clear();
+			for (Card other : Card.values())
+				if (other.getType() == card.getType() && other != card && !getHand().contains(other))
+					memory.addToFront(other, params.getInitialWeight());
+		}
+		else
+			memory.remove(card);
+	}
+
+	/** observe records an assumption as this AI saw it, after Rules has resolved it.
+	 *  The weighted AI learns only through its Memory, so this does nothing.
+	 * @param assumer Turn # of the assuming player.
+	 * @param guess Assumed cards, as a bitmask.
+	 * @param disprover Turn # of the disprover, or Rules.NOBODY.
+	 * @param shown Card ordinal shown to this AI, or Deduction.UNKNOWN.  */
+	public void observe(int assumer, int guess, int disprover, int shown) {}
+
+	/** captureMemory packs all three Memories into a GameState as a card bitmask and weight bump counts.
+	 * @param state State to write into.
+	 * @param p AI's turn #.  */
+	public void captureMemory(GameState state, int p) {
+		state.setMemory(p, getMemoryMask());
+
+		for (Card card : Card.values()) {
+			MemoryNode node = memoryOf(card).getNodeOfCard(card);
+			int bumps = node == null ? 0 : params.bumps(node.getWeight());
+			state.setBumps(p, card.ordinal(), bumps);
+		}
+	}
+
+	/** restoreMemory rebuilds all three Memories from a GameState.
+	 * @param state State to read from.
+	 * @param p AI's turn #.  */
+	public void restoreMemory(GameState state, int p) {
+		weapon.clear();
+		room.clear();
+		person.clear();
+
+		//Rebuild in Card enum order, matching the constructor.
+		int mask = state.getMemory(p);
+		for (Card card : Card.values())
+			if ((mask & GameState.bit(card)) != 0)
+				memoryOf(card).addToFront(card, params.weight(state.getBumps(p, card.ordinal())));
+	}
+
+	/** getMemoryMask returns every card still in Memory as a bitmask (bit n = Card ordinal n).  */
+	public int getMemoryMask() {
+		return weapon.getMask() | room.getMask() | person.getMask();
+	}
+
+	/** memoryOf returns the Memory holding cards of the given Card's type.  */
+	private AIMemory memoryOf(Card card) {
+		if (card.getType() == 1)
+			return weapon;
+		else if (card.getType() == 2)
+			return room;
+		else
+			return person;
 	}
 
 	public String toString() {
@@ -145,19 +192,25 @@ public class AI extends Player {
 				+ "\nrooms: " + room + "\nperson: "+ person;
 	}
 
+	/** makeIrrefutable narrows Memory to the cards of an assumption nobody could disprove.
+	 *  A type is only narrowed if its assumed card is still in Memory, so a bluff never empties Memory.
+	 * @param guess Cards of the undisproved assumption.
+	 * @param turnNum Turn # of the assuming player.  */
 	public void makeIrrefutable(ArrayList<Card> guess, int turnNum){
 
-		if(turnNum == getPlayerNum() && room.contains(getMovement().getEquivalentRoom())) {
-			for (Card card : Card.values())
-				if (!guess.contains(card))
-					removeCard(card);
-		}
-		else {
-			for (Card card : Card.values())
-				if (!guess.contains(card) && card.getType() != 2)
-					removeCard(card);
-		}
+		boolean[] narrow = new boolean[4];
+		for (Card card : guess)
+			narrow[card.getType()] = memoryOf(card).contains(card);
+
+		//Rooms are only narrowed by the assuming AI, when its room is still in Memory.
+		if(turnNum != getPlayerNum() || !room.contains(getMovement().getEquivalentRoom()))
+			narrow[2] = false;
+
+		for (Card card : Card.values())
+			if (!guess.contains(card) && narrow[card.getType()])
+				removeCard(card);
 
-		System.out.println(getName() + ": " + weapon + "\n\t" + room + "\n\t" + person);
+		if (GameLog.DEBUG)
+			GameLog.debug(GameLog.AI_MEMORY, getPlayerIcon().ordinal(), getMemoryMask());
 	}
 }
@@ -8,14 +8,22 @@ public class AIMemory {
 	private MemoryNode front;		//Beginning pointer of LinkedList.
 	private int count;				//Length of List.
 	private double avgWeight;		//Average Value of all weights in Memory.
+	private double threshold;		//Cards weighted above threshold * avgWeight are preferred.
 
-	private Random r = new Random();
+	private Random r = Seeds.next();
 
 	/** Constructor.  */
 	public AIMemory() {
+		this(1.0);
+	}
+
+	/** Constructor.
+	 * @param threshold Multiple of the average weight a card must exceed to be preferred.  */
+	public AIMemory(double threshold) {
 		front = null;
 		count = 0;
 		avgWeight=1.0;
+		this.threshold = threshold;
 	}
 
 	/** Get Size.  */
@@ -36,7 +44,8 @@ public class AIMemory {
 	public void removeFront() {
 
 		if (front==null) {
-			System.out.println("Empty list");
+			if (GameLog.WARN)
+				GameLog.warn(GameLog.MEMORY_EMPTY, 0, 0);
 		}
 		else {
 			front = front.getNext();
@@ -61,7 +70,9 @@ public class AIMemory {
 				}
 			}
 			catch(NullPointerException e){
-				System.out.println("No Card " + c.getName());
+				if (GameLog.WARN)
+					GameLog.warn(GameLog.CARD_NOT_IN_MEMORY, c.ordinal(), 0);
+				return;
 			}
 
 			if(curr.getNext().getNext() != null) {
@@ -116,7 +127,7 @@ public class AIMemory {
 				
 				//Add all cards weighted above average.
 				while (curr!=null) {
-					if (curr.getWeight()>avgWeight)
+					if (curr.getWeight()>avgWeight*threshold)
 						a.add(curr.getCard());
 					curr=curr.getNext();
 				}
@@ -141,11 +152,28 @@ public class AIMemory {
 		}
 	}
 	
+	/** getCandidateMask returns, as a bitmask, the cards getAICardGuess chooses between:
+	 *  those weighted above the threshold, or every card if none are.  */
+	public int getCandidateMask() {
+		setAvgWeight();
+		if (noWeightsAboveAvg())
+			return getMask();
+
+		MemoryNode curr = front;
+		int mask = 0;
+		while (curr != null) {
+			if (curr.getWeight()>avgWeight*threshold)
+				mask |= 1 << curr.getCard().ordinal();
+			curr = curr.getNext();
+		}
+		return mask;
+	}
+
 	//checks if their are any weights above the average
 	public boolean noWeightsAboveAvg() {
 		MemoryNode curr = front;
 		while (curr!=null) {
-			if (curr.getWeight()>avgWeight)
+			if (curr.getWeight()>avgWeight*threshold)
 				return false;
 			curr = curr.getNext();
 		}
@@ -167,11 +195,28 @@ public class AIMemory {
 	/** addToFront creates new node and adds it to front of List.
 	 * @param c Card in node.
 	 * @param w Initial weight.  */
-	public void addToFront(Card c,int w) {
+	public void addToFront(Card c,double w) {
 		front = new MemoryNode(c, w, front);
 		count++;
 	}
 
+	/** clear removes every node from Memory.  */
+	public void clear() {
+		front = null;
+		count = 0;
+	}
+
+	/** getMask returns all cards in Memory as a bitmask (bit n = Card ordinal n).  */
+	public int getMask() {
+		MemoryNode curr = front;
+		int mask = 0;
+		while (curr != null) {
+			mask |= 1 << curr.getCard().ordinal();
+			curr = curr.getNext();
+		}
+		return mask;
+	}
+
 	/** contains checks if given Card exists within memory.  */
 	public boolean contains(Card card) {
 		MemoryNode curr = front;
@@ -185,12 +230,12 @@ public class AIMemory {
 
 	public String toString() {
 		MemoryNode curr = front;
-		String temp="";
+		StringBuilder temp = new StringBuilder();
 		while (curr!=null) {
-			temp+=curr;
+			temp.append(curr);
 			curr = curr.getNext();
 		}
-		return temp;
+		return temp.toString();
 	}
 
 	public Card getFrontData(){
@@ -0,0 +1,86 @@
+import java.io.*;
+import java.util.*;
+
+/** AIParameters holds the tunable numbers behind the AI's card weighting.
+ *  Tuned values are written by ParameterSweep to FILE, which every AI loads on construction.  */
+public class AIParameters {
+
+    public static final File FILE = new File("ai.properties");
+    public static final AIParameters DEFAULTS = new AIParameters(1, 0.8, 1);
+
+    private final double initialWeight;     //Starting weight of every card in Memory.
+    private final double weightBump;        //Weight added when a card appears in another player's assumption.
+    private final double threshold;         //Cards weighted above threshold * average weight are preferred.
+
+    /** Constructor.  */
+    public AIParameters(double initialWeight, double weightBump, double threshold) {
+        this.initialWeight = initialWeight;
+        this.weightBump = weightBump;
+        this.threshold = threshold;
+    }
+
+    /** Get Methods.  */
+    public double getInitialWeight() { return initialWeight; }
+    public double getWeightBump()    { return weightBump; }
+    public double getThreshold()     { return threshold; }
+
+    /** weight gives the weight of a card raised the given # of times.  */
+    public double weight(int bumps) { return initialWeight + weightBump*bumps; }
+
+    /** bumps inverts weight, for packing Memory into a GameState.  */
+    public int bumps(double weight) {
+        return weightBump == 0 ? 0 : (int) Math.round((weight - initialWeight) / weightBump);
+    }
+
+    /** load reads parameters from FILE, or returns the defaults if there is none.  */
+    public static AIParameters load() {
+        return FILE.exists() ? load(FILE) : DEFAULTS;
+    }
+
+    /** load reads parameters from a properties file. Missing or unreadable values fall back to the defaults.  */
+    public static AIParameters load(File file) {
+        Properties properties = new Properties();
+        try {
+            InputStream in = new FileInputStream(file);
+            try {
+                properties.load(in);
+            }
+            finally {
+                in.close();
+            }
+            return new AIParameters(
+                    Double.parseDouble(properties.getProperty("initialWeight", "" + DEFAULTS.initialWeight)),
+                    Double.parseDouble(properties.getProperty("weightBump", "" + DEFAULTS.weightBump)),
+                    Double.parseDouble(properties.getProperty("threshold", "" + DEFAULTS.threshold)));
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return DEFAULTS;
+        }
+        catch (NumberFormatException e) {
+            e.printStackTrace();
+            return DEFAULTS;
+        }
+    }
+
+    /** save writes these parameters as a properties file.
+     * @param comment Header line, such as how the values were tuned.  */
+    public void save(File file, String comment) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("initialWeight", "" + initialWeight);
+        properties.setProperty("weightBump", "" + weightBump);
+        properties.setProperty("threshold", "" + threshold);
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, comment);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    public String toString() {
+        return "initialWeight=" + initialWeight + ", weightBump=" + weightBump + ", threshold=" + threshold;
+    }
+}
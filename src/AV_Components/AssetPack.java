@@ -0,0 +1,262 @@
+package AV_Components;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.*;
+import java.awt.*;
+import java.awt.image.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/** AssetPack holds images as raw pixels and sounds as PCM in one file, opened with a single memory map.
+ *  Images come out of the mapping with a bulk copy instead of a JPEG or PNG decode, and the file
+ *  is shared between running games through the page cache.
+ *
+ *  Layout, big-endian:
+ *      int magic, int version, int entries, long stamp,
+ *      then per entry: UTF name, byte kind, int a, int b, int c, long offset, int length,
+ *      then the data of each entry, 8-byte aligned.
+ *  Images store width, height and BufferedImage type in a, b, c: INT_ARGB_PRE if translucent, else INT_RGB.
+ *  Sounds store the sample rate bits, sample size in bits and channels, as signed PCM.
+ *
+ *  The pack records the names of its sources. It is ignored if any source has changed since it was
+ *  written, until build writes it again.  */
+public final class AssetPack {
+
+    public static final File FILE = new File("Data/Assets.pack");
+
+    private static final int MAGIC = 0x434C504B;       //"CLPK"
+    private static final int VERSION = 1;
+    private static final byte IMAGE = 0, SOUND = 1;
+
+    /** Entry locates one asset in the mapping.  */
+    private static final class Entry {
+        final byte kind;
+        final int a, b, c;
+        final int offset, length;
+
+        Entry(byte kind, int a, int b, int c, int offset, int length) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static AssetPack shared;
+    private static boolean opened;
+
+    private final ByteBuffer map;
+    private final HashMap<String, Entry> entries;
+
+    private AssetPack(ByteBuffer map, HashMap<String, Entry> entries) {
+        this.map = map;
+        this.entries = entries;
+    }
+
+    /** shared opens the pack on first use.
+     * @return The pack, or null if there is none or it is out of date.  */
+    public static synchronized AssetPack shared() {
+        if (!opened) {
+            opened = true;
+            try {
+                shared = open(FILE);
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return shared;
+    }
+
+    /** isCurrent returns true if a pack of exactly these files is open and up to date.
+     *  Files that do not exist are not expected in the pack.  */
+    public static boolean isCurrent(String[] files) {
+        AssetPack pack = shared();
+        if (pack == null)
+            return false;
+        HashSet<String> expected = new HashSet<String>();
+        for (String file : files)
+            if (new File(file).exists())
+                expected.add(file);
+        return pack.entries.keySet().equals(expected);
+    }
+
+    /** open maps a pack, or returns null if it is missing, of another version, or out of date.  */
+    private static AssetPack open(File file) throws IOException {
+        if (!file.exists())
+            return null;
+
+        ByteBuffer map;
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            map = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+        }
+        finally {
+            in.close();     //The mapping stays valid after the channel is closed.
+        }
+        if (map.remaining() < 12 || map.getInt() != MAGIC || map.getInt() != VERSION)
+            return null;
+
+        int count = map.getInt();
+        long stamp = map.getLong();
+        HashMap<String, Entry> entries = new HashMap<String, Entry>();
+        for (int i=0; i<count; i++) {
+            byte[] name = new byte[map.getShort() & 0xFFFF];
+            map.get(name);
+            entries.put(new String(name, "UTF-8"), new Entry(map.get(), map.getInt(), map.getInt(), map.getInt(),
+                    (int) map.getLong(), map.getInt()));
+        }
+        if (stamp != stamp(entries.keySet()))
+            return null;
+        return new AssetPack(map, entries);
+    }
+
+    /** image copies an image out of the pack.
+     * @return The image, or null if it is not in the pack.  */
+    public BufferedImage image(String file) {
+        Entry entry = entries.get(file);
+        if (entry == null || entry.kind != IMAGE)
+            return null;
+
+        BufferedImage image = new BufferedImage(entry.a, entry.b, entry.c);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        slice(entry).asIntBuffer().get(pixels);
+        return image;
+    }
+
+    /** sound gives a stream over a sound's PCM samples.
+     * @return The stream, or null if it is not in the pack.  */
+    public AudioInputStream sound(String file) {
+        Entry entry = entries.get(file);
+        if (entry == null || entry.kind != SOUND)
+            return null;
+
+        AudioFormat format = new AudioFormat(Float.intBitsToFloat(entry.a), entry.b, entry.c, true, true);
+        byte[] samples = new byte[entry.length];
+        slice(entry).get(samples);
+        return new AudioInputStream(new ByteArrayInputStream(samples), format, entry.length / format.getFrameSize());
+    }
+
+    private ByteBuffer slice(Entry entry) {
+        ByteBuffer slice = map.duplicate();
+        slice.position(entry.offset);
+        slice.limit(entry.offset + entry.length);
+        return slice.slice();
+    }
+
+    /** build decodes the files and writes a new pack, replacing the old one in a single rename
+     *  so running games keep their mapping. Takes effect the next time the game starts.
+     * @param files Image and .wav files. Missing or unreadable files are left out.  */
+    public static void build(String[] files) throws IOException {
+        ArrayList<String> names = new ArrayList<String>();
+        ArrayList<Entry> entries = new ArrayList<Entry>();
+        ArrayList<byte[]> data = new ArrayList<byte[]>();
+        for (String file : files) {
+            try {
+                if (file.endsWith(".wav"))
+                    addSound(file, entries, data);
+                else if (!addImage(file, entries, data))
+                    continue;
+                names.add(file);
+            }
+            catch (UnsupportedAudioFileException e) {
+                e.printStackTrace();
+            }
+        }
+
+        File temp = new File(FILE.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            long offset = 20;
+            for (String name : names)
+                offset += 2 + name.getBytes("UTF-8").length + 1 + 12 + 8 + 4;
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            out.writeLong(stamp(names));
+            for (int i=0; i<names.size(); i++) {
+                Entry entry = entries.get(i);
+                offset = (offset + 7) & ~7;
+                out.writeUTF(names.get(i));
+                out.writeByte(entry.kind);
+                out.writeInt(entry.a);
+                out.writeInt(entry.b);
+                out.writeInt(entry.c);
+                out.writeLong(offset);
+                out.writeInt(entry.length);
+                offset += entry.length;
+            }
+            for (byte[] bytes : data) {
+                while (out.size() % 8 != 0)
+                    out.writeByte(0);
+                out.write(bytes);
+            }
+        }
+        finally {
+            out.close();
+        }
+        if (!temp.renameTo(FILE)) {
+            FILE.delete();
+            if (!temp.renameTo(FILE))
+                throw new IOException("Could not replace " + FILE);
+        }
+    }
+
+    private static boolean addImage(String file, ArrayList<Entry> entries, ArrayList<byte[]> data) throws IOException {
+        BufferedImage source = ImageIO.read(new File(file));
+        if (source == null)
+            return false;
+
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB_PRE : BufferedImage.TYPE_INT_RGB;
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer bytes = ByteBuffer.allocate(4 * pixels.length);
+        bytes.asIntBuffer().put(pixels);
+        entries.add(new Entry(IMAGE, image.getWidth(), image.getHeight(), type, 0, bytes.capacity()));
+        data.add(bytes.array());
+        return true;
+    }
+
+    private static void addSound(String file, ArrayList<Entry> entries, ArrayList<byte[]> data)
+            throws IOException, UnsupportedAudioFileException {
+        AudioInputStream source = AudioSystem.getAudioInputStream(new File(file));
+        AudioFormat from = source.getFormat();
+        AudioFormat to = new AudioFormat(from.getSampleRate(), from.getSampleSizeInBits(), from.getChannels(), true, true);
+        AudioInputStream pcm = AudioSystem.getAudioInputStream(to, source);
+        try {
+            ByteArrayOutputStream samples = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read; (read = pcm.read(buffer)) > 0; )
+                samples.write(buffer, 0, read);
+            entries.add(new Entry(SOUND, Float.floatToIntBits(to.getSampleRate()), to.getSampleSizeInBits(),
+                    to.getChannels(), 0, samples.size()));
+            data.add(samples.toByteArray());
+        }
+        finally {
+            pcm.close();
+        }
+    }
+
+    /** stamp summarizes the names, sizes and modification times of the source files.  */
+    private static long stamp(Collection<String> files) {
+        String[] sorted = files.toArray(new String[files.size()]);
+        Arrays.sort(sorted);
+        long hash = sorted.length;
+        for (String file : sorted) {
+            File source = new File(file);
+            hash = 31 * hash + file.hashCode();
+            hash = 31 * hash + source.length();
+            hash = 31 * hash + source.lastModified();
+        }
+        return hash;
+    }
+}
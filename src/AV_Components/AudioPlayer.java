@@ -1,26 +1,71 @@
 package AV_Components;
 
 import javax.sound.sampled.*;
-import java.applet.*;
-import java.net.*;
 import java.io.*;
+import java.util.concurrent.atomic.*;
 
 public class AudioPlayer{
 
-    private AudioClip audio;
+    private Clip clip;
     private String fileName;
     private static Clip audioClip;
 
+    //Usage counters, read by the admin endpoint.
+    private static final AtomicLong plays = new AtomicLong();
+    private static final AtomicInteger voices = new AtomicInteger();   //Sound effect clips playing right now.
+    private static volatile boolean looping;
+    private static volatile boolean muted;      //Silences sound effects, not the main loop.
+
     public AudioPlayer(String fileName) {
         this.fileName = fileName;
     }
 
     public void play() {
+        if (muted)
+            return;
+        AssetPack pack = AssetPack.shared();
+        AudioInputStream samples = pack == null ? null : pack.sound("Audio/" + fileName);
+        try {
+            playClip(samples != null ? samples : AudioSystem.getAudioInputStream(new File("Audio/" + fileName)));
+        }
+        catch (UnsupportedAudioFileException e) {
+            e.printStackTrace();
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** playClip plays samples on a Clip, closed again once it stops.
+     *  Files from disk play on a Clip too, rather than an applet AudioClip, since only a Clip reports
+     *  when it stops, which voices needs.  */
+    private void playClip(AudioInputStream samples) {
         try {
-            audio = Applet.newAudioClip(new URL("file:Audio/" + fileName));
-            audio.play();
+            final Clip line = AudioSystem.getClip();
+            final AtomicBoolean sounding = new AtomicBoolean();
+            line.addLineListener(new LineListener() {
+                public void update(LineEvent event) {
+                    if (event.getType() == LineEvent.Type.STOP || event.getType() == LineEvent.Type.CLOSE) {
+                        if (sounding.compareAndSet(true, false))
+                            voices.decrementAndGet();
+                        line.close();
+                    }
+                }
+            });
+            line.open(samples);
+            sounding.set(true);
+            voices.incrementAndGet();
+            line.start();
+            clip = line;
+            plays.incrementAndGet();
+        }
+        catch (IllegalArgumentException e) {
+            //No mixer for the format, as on machines without sound: stay silent, as AudioClip does.
+        }
+        catch (LineUnavailableException e) {
+            e.printStackTrace();
         }
-        catch(MalformedURLException e){
+        catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -40,6 +85,7 @@ public class AudioPlayer{
                 audioClip = (Clip) AudioSystem.getLine(info);
                 audioClip.open(repeater);
                 audioClip.loop(Clip.LOOP_CONTINUOUSLY);
+                looping = true;
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -49,14 +95,28 @@ public class AudioPlayer{
         else
             try{
                 audioClip.stop();
+                looping = false;
             }
             catch(NullPointerException e){
                 System.out.println("Loop Not Started.");
             }
     }
 
+    /** getPlays returns how many sound effects have been started.  */
+    public static long getPlays() { return plays.get(); }
+
+    /** getVoices returns how many sound effects are playing at once, not counting the main loop.  */
+    public static int getVoices() { return voices.get(); }
+
+    /** isLooping returns true while the main music loop is playing.  */
+    public static boolean isLooping() { return looping; }
+
+    /** setMuted silences or restores sound effects.  */
+    public static void setMuted(boolean mute) { muted = mute; }
+
     public void stop(){
-        audio.stop();
+        if (clip != null)
+            clip.stop();
     }
 
 }
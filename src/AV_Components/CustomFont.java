@@ -5,12 +5,15 @@ import java.awt.FontFormatException;
 import java.awt.Font;
 import java.io.*;
 
-/** CustomFont chosen for in-game Console.  */
+/** CustomFont chosen for in-game Console. Loaded once, on first use.  */
 public class CustomFont{
 
-    public static Font getFont(){
+    private static Font font;
 
-        Font font = null;
+    public static synchronized Font getFont(){
+
+        if (font != null)
+            return font;
 
         try{
             font = Font.createFont(Font.TRUETYPE_FONT, new File("Font/snell/Snell Roundhand Script.ttf"));
@@ -0,0 +1,164 @@
+import AV_Components.AudioPlayer;
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+
+/** AdminServer serves Metrics on localhost, as JSON at /metrics.json and in Prometheus text format at /metrics.
+ *  Scrapes run on the server's own thread and only read atomic counters.
+ *  Started by GameMain, Tournament and ParameterSweep when -Dclue.admin.port is set.  */
+public class AdminServer {
+
+    private final HttpServer server;
+    private final long startNanos = System.nanoTime();
+
+    //Previous scrape, used for the games per second rate. Only touched by the server thread.
+    private long lastScrapeNanos = startNanos;
+    private long lastFinished;
+    private double gamesPerSecond;
+
+    /** Constructor binds to localhost and starts serving.
+     * @param port TCP port, or 0 for any free port.  */
+    public AdminServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.setExecutor(Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "AdminServer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }));
+
+        server.createContext("/metrics", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, "text/plain; version=0.0.4", prometheus());
+            }
+        });
+        server.createContext("/metrics.json", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange, "application/json", json());
+            }
+        });
+        server.start();
+        Metrics.enable();
+    }
+
+    /** startIfConfigured starts a server on -Dclue.admin.port, if set.
+     * @return Running server, or null.  */
+    public static AdminServer startIfConfigured() {
+        Integer port = Integer.getInteger("clue.admin.port");
+        if (port == null)
+            return null;
+        try {
+            return new AdminServer(port);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /** Get Methods.  */
+    public int getPort() { return server.getAddress().getPort(); }
+
+    public void stop() { server.stop(0); }
+
+    /** sampleRate updates games per second from the games finished since the previous scrape.  */
+    private void sampleRate() {
+        long now = System.nanoTime();
+        long finished = Metrics.GAMES_FINISHED.sum();
+        if (now - lastScrapeNanos > 0)
+            gamesPerSecond = (finished - lastFinished) * 1e9 / (now - lastScrapeNanos);
+        lastScrapeNanos = now;
+        lastFinished = finished;
+    }
+
+    private String prometheus() {
+        sampleRate();
+        StringBuilder out = new StringBuilder();
+
+        gauge(out, "clue_uptime_seconds", "Seconds since the admin server started.", (System.nanoTime() - startNanos) / 1e9);
+        gauge(out, "clue_games_in_flight", "Games started and not yet finished.", Metrics.gamesInFlight());
+        counter(out, "clue_games_finished_total", "Games finished.", Metrics.GAMES_FINISHED.sum());
+        gauge(out, "clue_games_per_second", "Games finished per second since the previous scrape.", gamesPerSecond);
+        counter(out, "clue_mcts_rollouts_total", "Rollouts played by MonteCarloSearch.", Metrics.MCTS_ROLLOUTS.sum());
+        counter(out, "clue_asset_cache_hits_total", "Image lookups served from cache.", Metrics.ASSET_HITS.sum());
+        counter(out, "clue_asset_cache_misses_total", "Image lookups that loaded from disk.", Metrics.ASSET_MISSES.sum());
+        counter(out, "clue_audio_plays_total", "Sound effects started.", AudioPlayer.getPlays());
+        gauge(out, "clue_audio_voices", "Sound effects playing at once.", AudioPlayer.getVoices());
+        gauge(out, "clue_audio_loop_active", "1 while the main music loop is playing.", AudioPlayer.isLooping() ? 1 : 0);
+        counter(out, "clue_log_dropped_total", "GameLog events dropped because the buffer was full.", GameLog.getDropped());
+
+        for (Metrics.Histogram histogram : Metrics.HISTOGRAMS) {
+            String name = histogram.getName();
+            out.append("# HELP ").append(name).append(' ').append(histogram.getHelp()).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long cumulative = 0;
+            for (int n=0; n<Metrics.Histogram.BUCKETS; n++) {
+                cumulative += histogram.getBucket(n);
+                out.append(name).append("_bucket{le=\"").append(Metrics.Histogram.getUpperBoundMicros(n) / 1e6)
+                        .append("\"} ").append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(histogram.getCount()).append('\n');
+            out.append(name).append("_sum ").append(histogram.getSumNanos() / 1e9).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private String json() {
+        sampleRate();
+        StringBuilder out = new StringBuilder("{");
+        out.append("\"uptimeSeconds\":").append((System.nanoTime() - startNanos) / 1e9);
+        out.append(",\"gamesInFlight\":").append(Metrics.gamesInFlight());
+        out.append(",\"gamesFinished\":").append(Metrics.GAMES_FINISHED.sum());
+        out.append(",\"gamesPerSecond\":").append(gamesPerSecond);
+        out.append(",\"mctsRollouts\":").append(Metrics.MCTS_ROLLOUTS.sum());
+        out.append(",\"assetCache\":{\"hits\":").append(Metrics.ASSET_HITS.sum())
+                .append(",\"misses\":").append(Metrics.ASSET_MISSES.sum())
+                .append(",\"hitRate\":").append(Metrics.assetHitRate()).append('}');
+        out.append(",\"audio\":{\"plays\":").append(AudioPlayer.getPlays())
+                .append(",\"voices\":").append(AudioPlayer.getVoices())
+                .append(",\"loopActive\":").append(AudioPlayer.isLooping()).append('}');
+        out.append(",\"logDropped\":").append(GameLog.getDropped());
+
+        for (Metrics.Histogram histogram : Metrics.HISTOGRAMS) {
+            out.append(",\"").append(histogram.getName()).append("\":{\"count\":").append(histogram.getCount())
+                    .append(",\"sumSeconds\":").append(histogram.getSumNanos() / 1e9).append(",\"bucketsMicros\":{");
+            for (int n=0; n<Metrics.Histogram.BUCKETS; n++) {
+                if (n > 0)
+                    out.append(',');
+                out.append('"').append(Metrics.Histogram.getUpperBoundMicros(n)).append("\":").append(histogram.getBucket(n));
+            }
+            out.append(",\"+Inf\":").append(histogram.getBucket(Metrics.Histogram.BUCKETS));
+            out.append("}}");
+        }
+        return out.append("}\n").toString();
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void respond(HttpExchange exchange, String type, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", type);
+        exchange.sendResponseHeaders(200, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(bytes);
+        }
+        finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import javax.swing.*;
+import java.awt.event.*;
+import java.util.*;
+
+/** Animator runs every UI animation from one Swing timer ticking once a frame.
+ *  Each tick fires every Task that is due, in one EDT event, so the repaints they request
+ *  are coalesced by the RepaintManager into a single paint per frame.
+ *  The tick only runs while a Task is running. Frame times are recorded in
+ *  Metrics.FRAME_WORK and Metrics.FRAME_INTERVAL.
+ *
+ *  Tasks are used like javax.swing.Timer: they fire an ActionEvent whose source is the Task.
+ *  Call from the event dispatch thread.  */
+public final class Animator {
+
+    public static final int FRAME_MILLIS = 16;      //About 60 frames per second.
+
+    /** Task is a delayed or repeating action fired by the Animator's tick.
+     *  A delay of 0 fires on every frame.  */
+    public static final class Task {
+
+        private final ActionListener listener;
+        private int delay, initialDelay;
+        private boolean repeats = true;
+        private boolean running;
+        private long due;           //System.nanoTime() of the next firing.
+        private long fired;         //System.nanoTime() of the last firing, or of start.
+
+        /** Constructor.
+         * @param delay Milliseconds between firings, and before the first.
+         * @param listener Receives an ActionEvent whose source is this Task.  */
+        public Task(int delay, ActionListener listener) {
+            this.delay = delay;
+            this.initialDelay = delay;
+            this.listener = listener;
+        }
+
+        /** Set Methods.  */
+        public void setDelay(int delay)               { this.delay = delay; }
+        public void setInitialDelay(int initialDelay) { this.initialDelay = initialDelay; }
+        public void setRepeats(boolean repeats)       { this.repeats = repeats; }
+
+        /** Get Methods.  */
+        public boolean isRunning() { return running; }
+
+        /** getElapsed gives the milliseconds since this Task last fired or started, for frame-rate independent steps.  */
+        public int getElapsed() { return (int) ((System.nanoTime() - fired) / 1000000); }
+
+        /** start schedules the first firing after the initial delay. Does nothing if already running.  */
+        public void start() {
+            if (running)
+                return;
+            running = true;
+            fired = System.nanoTime();
+            due = fired + initialDelay * 1000000L;
+            add(this);
+        }
+
+        /** stop cancels any further firings.  */
+        public void stop() { running = false; }
+
+        /** restart stops and starts again from the initial delay.  */
+        public void restart() {
+            stop();
+            start();
+        }
+
+        private void fire(long now) {
+            if (repeats)
+                due = Math.max(due + delay * 1000000L, now);    //Keep cadence, but never queue up missed firings.
+            else
+                running = false;
+            listener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, null));
+            fired = now;
+        }
+    }
+
+    private static final ArrayList<Task> tasks = new ArrayList<Task>();
+    private static javax.swing.Timer tick;
+    private static long lastTick;
+
+    private Animator() {}
+
+    private static void add(Task task) {
+        if (!tasks.contains(task))
+            tasks.add(task);
+        if (tick == null) {
+            tick = new javax.swing.Timer(FRAME_MILLIS, new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    frame();
+                }
+            });
+        }
+        if (!tick.isRunning()) {
+            lastTick = System.nanoTime();
+            tick.start();
+        }
+    }
+
+    /** frame fires every due Task, then stops the tick if nothing is left running.  */
+    private static void frame() {
+        long now = System.nanoTime();
+        Metrics.FRAME_INTERVAL.record(now - lastTick);
+        lastTick = now;
+
+        for (Task task : tasks.toArray(new Task[tasks.size()]))
+            if (task.running && now - task.due >= 0)
+                task.fire(now);
+
+        for (Iterator<Task> it = tasks.iterator(); it.hasNext(); )
+            if (!it.next().running)
+                it.remove();
+        if (tasks.isEmpty())
+            tick.stop();
+        Metrics.FRAME_WORK.since(now);
+    }
+
+    /** getActive gives the number of Tasks running.  */
+    public static int getActive() {
+        int active = 0;
+        for (Task task : tasks)
+            if (task.running)
+                active++;
+        return active;
+    }
+}
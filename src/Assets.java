@@ -0,0 +1,109 @@
+import AV_Components.AssetPack;
+import Game_Constants.*;
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.*;
+
+/** Assets loads the game's images on first use and keeps them.
+ *  The Card, Dice and GamePiece eNums only hold image paths, so simulators and servers
+ *  can use them without loading images or starting AWT.
+ *  Card, dice and piece sprites and the card back are drawn from one Atlas. If the atlas cannot
+ *  be built they are loaded one file at a time instead.
+ *  Images in the AssetPack are copied from it rather than decoded.
+ *  Lookups are counted in Metrics.ASSET_HITS and Metrics.ASSET_MISSES.  */
+public final class Assets {
+
+    public static final String CARD_BACK = "Images/Cards/Cardback/Cardback.jpg";
+
+    private static final ImageIcon[] cards = new ImageIcon[Card.values().length];
+    private static final ImageIcon[] dice = new ImageIcon[Dice.values().length];
+    private static final ImageIcon[] pieces = new ImageIcon[GamePiece.values().length];
+    private static ImageIcon cardBack;
+    private static final HashMap<String, ImageIcon> files = new HashMap<String, ImageIcon>();
+
+    private static Atlas atlas;
+    private static boolean atlasTried;
+
+    private Assets() {}
+
+    /** image gives the picture on a Card.  */
+    public static synchronized ImageIcon image(Card card) {
+        return cached(cards, card.ordinal(), card.getImagePath());
+    }
+
+    /** image gives the picture of a side of the die.  */
+    public static synchronized ImageIcon image(Dice side) {
+        return cached(dice, side.ordinal(), side.getImagePath());
+    }
+
+    /** image gives the token of a GamePiece.  */
+    public static synchronized ImageIcon image(GamePiece piece) {
+        return cached(pieces, piece.ordinal(), piece.getImagePath());
+    }
+
+    /** cardBack gives the back of a card.  */
+    public static synchronized ImageIcon cardBack() {
+        if (cardBack == null) {
+            Metrics.ASSET_MISSES.increment();
+            cardBack = sprite(CARD_BACK);
+        }
+        else
+            Metrics.ASSET_HITS.increment();
+        return cardBack;
+    }
+
+    /** image gives any other image, by file name.  */
+    public static synchronized ImageIcon image(String file) {
+        ImageIcon image = files.get(file);
+        if (image == null) {
+            Metrics.ASSET_MISSES.increment();
+            AssetPack pack = AssetPack.shared();
+            BufferedImage packed = pack == null ? null : pack.image(file);
+            image = packed != null ? new ImageIcon(packed) : new ImageIcon(file);
+            files.put(file, image);
+        }
+        else
+            Metrics.ASSET_HITS.increment();
+        return image;
+    }
+
+    private static ImageIcon cached(ImageIcon[] images, int index, String file) {
+        ImageIcon image = images[index];
+        if (image == null) {
+            Metrics.ASSET_MISSES.increment();
+            image = sprite(file);
+            images[index] = image;
+        }
+        else
+            Metrics.ASSET_HITS.increment();
+        return image;
+    }
+
+    /** sprite draws a file from the atlas, loading the atlas on first use.  */
+    private static ImageIcon sprite(String file) {
+        if (!atlasTried) {
+            atlasTried = true;
+            try {
+                atlas = Atlas.load(spriteFiles());
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return atlas != null ? atlas.sprite(file) : new ImageIcon(file);
+    }
+
+    /** spriteFiles lists every image packed into the atlas.  */
+    private static String[] spriteFiles() {
+        ArrayList<String> files = new ArrayList<String>();
+        for (Card card : Card.values())
+            files.add(card.getImagePath());
+        for (Dice side : Dice.values())
+            files.add(side.getImagePath());
+        for (GamePiece piece : GamePiece.values())
+            files.add(piece.getImagePath());
+        files.add(CARD_BACK);
+        return files.toArray(new String[files.size()]);
+    }
+}
@@ -0,0 +1,166 @@
+import AV_Components.AssetPack;
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.*;
+
+/** Atlas packs many small images into one image, with an index of where each one sits.
+ *  It is built on first run from the source files and kept in Data/, then rebuilt whenever a
+ *  source file changes. Sprites are painted with drawImage from source rectangles of a single
+ *  compatible BufferedImage, so there is one file to open, one decode, and one image in memory.  */
+public final class Atlas {
+
+    public static final File IMAGE = new File("Data/Sprites.png");
+    public static final File INDEX = new File("Data/Sprites.properties");
+
+    private static final int WIDTH = 1024;      //Atlas width. Sprites are packed in rows.
+
+    /** Sprite is an ImageIcon painted from a region of the atlas.
+     *  getImage gives a view of that region, for Swing's disabled icon filters.  */
+    public static final class Sprite extends ImageIcon {
+
+        private final BufferedImage atlas;
+        private final int x, y, width, height;
+
+        Sprite(BufferedImage atlas, int x, int y, int width, int height) {
+            this.atlas = atlas;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getIconWidth()  { return width; }
+        public int getIconHeight() { return height; }
+
+        public Image getImage() { return atlas.getSubimage(x, y, width, height); }
+
+        public void paintIcon(Component c, Graphics g, int dx, int dy) {
+            g.drawImage(atlas, dx, dy, dx + width, dy + height, x, y, x + width, y + height, null);
+        }
+    }
+
+    private final BufferedImage image;
+    private final HashMap<String, Rectangle> regions;
+
+    private Atlas(BufferedImage image, HashMap<String, Rectangle> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    /** load reads the atlas of the given files, packing it again first if any file has changed.
+     * @param files Source image files.  */
+    public static Atlas load(String[] files) throws IOException {
+        String stamp = stamp(files);
+        Properties index = new Properties();
+        if (IMAGE.exists() && INDEX.exists()) {
+            InputStream in = new FileInputStream(INDEX);
+            try {
+                index.load(in);
+            }
+            finally {
+                in.close();
+            }
+        }
+        BufferedImage packed = null;
+        if (!stamp.equals(index.getProperty("stamp")))
+            index = pack(files, stamp);
+        else if (AssetPack.shared() != null)
+            packed = AssetPack.shared().image(IMAGE.getPath());     //Already premultiplied ARGB.
+
+        HashMap<String, Rectangle> regions = new HashMap<String, Rectangle>();
+        for (String file : files) {
+            String[] region = index.getProperty(file).split(",");
+            regions.put(file, new Rectangle(Integer.parseInt(region[0]), Integer.parseInt(region[1]),
+                    Integer.parseInt(region[2]), Integer.parseInt(region[3])));
+        }
+        return new Atlas(packed != null ? packed : compatible(ImageIO.read(IMAGE)), regions);
+    }
+
+    /** sprite gives the icon of one packed file.  */
+    public Sprite sprite(String file) {
+        Rectangle region = regions.get(file);
+        if (region == null)
+            throw new IllegalArgumentException("Not in atlas: " + file);
+        return new Sprite(image, region.x, region.y, region.width, region.height);
+    }
+
+    /** pack lays the files out in rows, tallest first, and writes the atlas image and index.  */
+    private static Properties pack(String[] files, String stamp) throws IOException {
+        final HashMap<String, BufferedImage> images = new HashMap<String, BufferedImage>();
+        for (String file : files) {
+            BufferedImage source = ImageIO.read(new File(file));
+            if (source == null)
+                throw new IOException("Unreadable image: " + file);
+            images.put(file, source);
+        }
+
+        String[] order = files.clone();
+        Arrays.sort(order, new Comparator<String>() {
+            public int compare(String a, String b) {
+                return images.get(b).getHeight() - images.get(a).getHeight();
+            }
+        });
+
+        Properties index = new Properties();
+        index.setProperty("stamp", stamp);
+        int x = 0, y = 0, rowHeight = 0;
+        for (String file : order) {
+            BufferedImage source = images.get(file);
+            if (x + source.getWidth() > WIDTH) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            index.setProperty(file, x + "," + y + "," + source.getWidth() + "," + source.getHeight());
+            x += source.getWidth();
+            rowHeight = Math.max(rowHeight, source.getHeight());
+        }
+
+        BufferedImage atlas = new BufferedImage(WIDTH, y + rowHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (String file : order) {
+            String[] region = index.getProperty(file).split(",");
+            g.drawImage(images.get(file), Integer.parseInt(region[0]), Integer.parseInt(region[1]), null);
+        }
+        g.dispose();
+
+        ImageIO.write(atlas, "png", IMAGE);
+        OutputStream out = new FileOutputStream(INDEX);
+        try {
+            index.store(out, "Sprite atlas index: file=x,y,width,height. Rebuilt when a source file changes.");
+        }
+        finally {
+            out.close();
+        }
+        return index;
+    }
+
+    /** stamp summarizes the sizes and modification times of the source files.  */
+    private static String stamp(String[] files) {
+        long hash = files.length;
+        for (String file : files) {
+            File source = new File(file);
+            hash = 31 * hash + file.hashCode();
+            hash = 31 * hash + source.length();
+            hash = 31 * hash + source.lastModified();
+        }
+        return Long.toHexString(hash);
+    }
+
+    /** compatible copies an image into the screen's preferred format, or premultiplied ARGB without a screen.  */
+    private static BufferedImage compatible(BufferedImage image) {
+        BufferedImage copy;
+        if (GraphicsEnvironment.isHeadless())
+            copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        else
+            copy = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                    .createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return copy;
+    }
+}
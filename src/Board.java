@@ -1,5 +1,6 @@
 /** Created by RTracey on March 23rd, 2015  */
 import AV_Components.*;
+import Game_Constants.Rooms;
 
 import javax.swing.*;
 import java.awt.*;
@@ -10,24 +11,31 @@ import java.util.*;
 public class Board extends JPanel implements ActionListener{
 
     //Default Board Image.
-    private final ImageIcon BOARD_IMAGE = new ImageIcon("Images/Display/Board Resized.jpeg");
+    private final ImageIcon BOARD_IMAGE = Assets.image("Images/Display/Board Resized.jpeg");
 
     //Panel components.
     private JLabel board;
 
     private ArrayList<JLabel> gamePiece;
+    private JLayeredPane layeredPane;
 
     private JLabel easterEgg;
-    private javax.swing.Timer eggStart, eggMove, eggFlip, eggStop, eggEnd;
+    private Animator.Task eggStart, eggMove, eggFlip, eggStop, eggEnd;
     private boolean eggIsRunning;
 
     /** Constructor.  */
     public Board(Player[] players){
+        this();
+        addPlayers(players);
+    }
+
+    /** Constructor for a Board without pieces, so it can be built before the characters are picked.  */
+    public Board(){
 
         gamePiece = new ArrayList<JLabel>();
 
         //Initialize Layered Pane & Set Dimension.
-        JLayeredPane layeredPane = new JLayeredPane();
+        layeredPane = new JLayeredPane();
         layeredPane.setPreferredSize(new Dimension(BOARD_IMAGE.getIconWidth(), BOARD_IMAGE.getIconHeight()));
 
         //Initialize Board label, set default Board image, and add to Pane at depth 5.
@@ -35,14 +43,8 @@ public class Board extends JPanel implements ActionListener{
         board.setIcon(BOARD_IMAGE);
         layeredPane.add(board, new Integer(5));
 
-        //Initialize Game Piece label, set default image, and add to Pane at depth 10.
-        for(int i=0; i<players.length; i++) {
-            gamePiece.add(players[i].getGamePiece());
-            layeredPane.add(players[i].getGamePiece(), new Integer(10));
-        }
-
         easterEgg = new JLabel();
-        easterEgg.setIcon(new ImageIcon("Images/Display/flip1.png"));
+        easterEgg.setIcon(Assets.image("Images/Display/flip1.png"));
         layeredPane.add(easterEgg, new Integer(20));
         easterEgg.setVisible(false);
         eggIsRunning = false;
@@ -52,26 +54,33 @@ public class Board extends JPanel implements ActionListener{
         setBackground(Color.BLACK);
 
         //Set bounds of labels.
-        for(int i=0; i<players.length; i++) {
-            gamePiece.get(i).setBounds(players[i].getMovement().getXPos(),
-                    players[i].getMovement().getYPos(),
-                    gamePiece.get(i).getIcon().getIconWidth(),
-                    gamePiece.get(i).getIcon().getIconHeight());
-        }
-
         easterEgg.setBounds(580,125,easterEgg.getIcon().getIconWidth(), easterEgg.getIcon().getIconHeight());
         board.setBounds(0, 0, BOARD_IMAGE.getIconWidth(), BOARD_IMAGE.getIconHeight());
 
-        eggStart = new javax.swing.Timer(100, this);
-        eggMove = new javax.swing.Timer(2000, this);
-        eggFlip = new javax.swing.Timer(500, this);
+        eggStart = new Animator.Task(100, this);
+        eggMove = new Animator.Task(2000, this);
+        eggFlip = new Animator.Task(500, this);
         eggFlip.setRepeats(false);
-        eggStop = new javax.swing.Timer(1500, this);
+        eggStop = new Animator.Task(1500, this);
         eggStop.setRepeats(false);
-        eggEnd = new javax.swing.Timer(1500, this);
+        eggEnd = new Animator.Task(1500, this);
         eggEnd.setRepeats(false);
     }
 
+    /** addPlayers places each player's game piece on the Board.  */
+    public void addPlayers(Player[] players){
+
+        //Add Game Piece label, with its default image, to Pane at depth 10.
+        for(int i=0; i<players.length; i++) {
+            gamePiece.add(players[i].getGamePiece());
+            layeredPane.add(players[i].getGamePiece(), new Integer(10));
+            gamePiece.get(i).setBounds(players[i].getMovement().getXPos(),
+                    players[i].getMovement().getYPos(),
+                    gamePiece.get(i).getIcon().getIconWidth(),
+                    gamePiece.get(i).getIcon().getIconHeight());
+        }
+    }
+
     /** Get gamePiece Point Method.  */
     public Point getGamePiecePoint(int index) {
         return new Point(gamePiece.get(index).getX(), gamePiece.get(index).getY());
@@ -80,6 +89,11 @@ public class Board extends JPanel implements ActionListener{
     /** Set boardIcon method.  */
     public void setBoardIcon(ImageIcon image) { board.setIcon(image); }
 
+    /** setPathwayIcon shows the board with the pathway between two rooms, loading each image once.  */
+    public void setPathwayIcon(Rooms from, Rooms to) {
+        board.setIcon(Assets.image("Images/Display/Pathways/" + from.getName() + "/" + to.getName() + ".jpeg"));
+    }
+
     /** Resets boardIcon.  */
     public void resetBoardIcon() { board.setIcon(BOARD_IMAGE); }
 
@@ -101,17 +115,23 @@ public class Board extends JPanel implements ActionListener{
             new AudioPlayer("grunt.wav").play();
         }
         if(e.getSource() == eggFlip){
-            easterEgg.setIcon(new ImageIcon("Images/Display/flip2.png"));
+            easterEgg.setIcon(Assets.image("Images/Display/flip2.png"));
             eggEnd.start();
         }
         if(e.getSource() == eggEnd){
             easterEgg.setLocation(580, 125);
             easterEgg.setVisible(false);
-            easterEgg.setIcon(new ImageIcon("Images/Display/flip1.png"));
+            easterEgg.setIcon(Assets.image("Images/Display/flip1.png"));
             eggIsRunning = false;
         }
     }
 
+    /** showEggAt places the easter egg at an x position without animating it, for offscreen rendering.  */
+    public void showEggAt(int x){
+        easterEgg.setVisible(true);
+        easterEgg.setLocation(x, easterEgg.getY());
+    }
+
     public void startEgg(){
         if(!eggIsRunning) {
             eggIsRunning = true;
@@ -0,0 +1,241 @@
+import Game_Constants.*;
+import java.io.*;
+import java.util.*;
+
+/** BoardGrid is the tile grid of the board, loaded once from Data/Board.txt.
+ *  Shortest paths are precomputed into flat tables when the class loads, so every distance is a single lookup:
+ *      steps(tile, room):      steps from a corridor tile into a room, entering through its nearest door.
+ *      distance(room, room):   steps from one room to another, leaving through the best door, or 1 by secret passage.
+ *      advance(...):           walks a piece along a shortest path, one table lookup per step.
+ *  Tiles are numbered row * getColumns() + column. Rooms are Rooms ordinals.  */
+public final class BoardGrid {
+
+    public static final String FILE = "Data/Board.txt";
+    public static final int NONE = GameState.NONE;
+
+    private static final int ROOMS = Rooms.values().length;
+    private static final int[][] NEIGHBOURS = {{0, -1}, {1, 0}, {0, 1}, {-1, 0}};
+
+    private static int columns, rows;
+    private static double originX, originY, tileWidth, tileHeight;
+
+    private static boolean[] corridor;       //Walkable tile.
+    private static short[] toRoom;           //[tile * ROOMS + room] steps into room, or Short.MAX_VALUE.
+    private static short[] nextTile;         //[tile * ROOMS + room] next tile toward room, or -1.
+    private static byte[] roomToRoom;        //[from * ROOMS + to] steps between rooms.
+    private static short[] exitTile;         //[from * ROOMS + to] first corridor tile when leaving from toward to.
+    private static boolean[] passage;        //[from * ROOMS + to] joined by a secret passage.
+
+    static {
+        try {
+            load(new File(FILE));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BoardGrid() {}
+
+    /** load parses the board file and builds every table.  */
+    private static void load(File file) throws IOException {
+        Map<Character, Rooms> legend = new HashMap<Character, Rooms>();
+        List<String> grid = new ArrayList<String>();
+        List<int[]> passages = new ArrayList<int[]>();
+
+        BufferedReader in = new BufferedReader(new FileReader(file));
+        try {
+            boolean inGrid = false;
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                if (inGrid) {
+                    if (!line.isEmpty())
+                        grid.add(line);
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] parts = line.split(" ", 3);
+                if (parts[0].equals("origin")) {
+                    originX = Double.parseDouble(parts[1]);
+                    originY = Double.parseDouble(parts[2]);
+                }
+                else if (parts[0].equals("tile")) {
+                    tileWidth = Double.parseDouble(parts[1]);
+                    tileHeight = Double.parseDouble(parts[2]);
+                }
+                else if (parts[0].equals("room"))
+                    legend.put(parts[1].charAt(0), roomNamed(parts[2]));
+                else if (parts[0].equals("passage"))
+                    passages.add(new int[]{parts[1].charAt(0), parts[2].charAt(0)});
+                else if (parts[0].equals("grid"))
+                    inGrid = true;
+                else
+                    throw new IOException("Unknown line in " + file + ": " + line);
+            }
+        }
+        finally {
+            in.close();
+        }
+
+        rows = grid.size();
+        columns = grid.get(0).length();
+        int tiles = rows * columns;
+
+        //Sort tiles into corridors and doors.
+        corridor = new boolean[tiles];
+        List<List<Integer>> exits = new ArrayList<List<Integer>>();
+        for (int r=0; r<ROOMS; r++)
+            exits.add(new ArrayList<Integer>());
+
+        for (int y=0; y<rows; y++) {
+            String row = grid.get(y);
+            if (row.length() != columns)
+                throw new IOException(file + ": row " + y + " is not " + columns + " tiles wide");
+            for (int x=0; x<columns; x++)
+                corridor[y*columns + x] = row.charAt(x) == '.';
+        }
+        for (int y=0; y<rows; y++)
+            for (int x=0; x<columns; x++) {
+                char c = grid.get(y).charAt(x);
+                if (!Character.isLowerCase(c))
+                    continue;
+                Rooms room = legend.get(Character.toUpperCase(c));
+                if (room == null)
+                    throw new IOException(file + ": no room for door '" + c + "'");
+                for (int[] step : NEIGHBOURS) {
+                    int tile = tileAt(x + step[0], y + step[1]);
+                    if (tile >= 0 && corridor[tile] && !exits.get(room.ordinal()).contains(tile))
+                        exits.get(room.ordinal()).add(tile);
+                }
+            }
+
+        //Breadth first search out of each room's doors gives every tile's distance into that room.
+        toRoom = new short[tiles * ROOMS];
+        nextTile = new short[tiles * ROOMS];
+        Arrays.fill(toRoom, Short.MAX_VALUE);
+        Arrays.fill(nextTile, (short) -1);
+        int[] queue = new int[tiles];
+
+        for (int r=0; r<ROOMS; r++) {
+            int head = 0, tail = 0;
+            for (int tile : exits.get(r)) {
+                toRoom[tile*ROOMS + r] = 1;
+                queue[tail++] = tile;
+            }
+            while (head < tail) {
+                int tile = queue[head++];
+                for (int[] step : NEIGHBOURS) {
+                    int next = tileAt(tile % columns + step[0], tile / columns + step[1]);
+                    if (next >= 0 && corridor[next] && toRoom[next*ROOMS + r] == Short.MAX_VALUE) {
+                        toRoom[next*ROOMS + r] = (short) (toRoom[tile*ROOMS + r] + 1);
+                        nextTile[next*ROOMS + r] = (short) tile;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        //Room to room: one step out of a door, then the corridor distance in.
+        passage = new boolean[ROOMS * ROOMS];
+        for (int[] pair : passages) {
+            int a = legend.get((char) pair[0]).ordinal(), b = legend.get((char) pair[1]).ordinal();
+            passage[a*ROOMS + b] = passage[b*ROOMS + a] = true;
+        }
+
+        roomToRoom = new byte[ROOMS * ROOMS];
+        exitTile = new short[ROOMS * ROOMS];
+        for (int from=0; from<ROOMS; from++)
+            for (int to=0; to<ROOMS; to++) {
+                int best = Short.MAX_VALUE, bestExit = -1;
+                for (int tile : exits.get(from))
+                    if (1 + toRoom[tile*ROOMS + to] < best) {
+                        best = 1 + toRoom[tile*ROOMS + to];
+                        bestExit = tile;
+                    }
+                if (from == to)
+                    best = 0;
+                else if (passage[from*ROOMS + to])
+                    best = 1;
+                else if (bestExit < 0)
+                    throw new IOException(file + ": " + Rooms.values()[to].getName() + " cannot be reached from "
+                            + Rooms.values()[from].getName());
+                roomToRoom[from*ROOMS + to] = (byte) best;
+                exitTile[from*ROOMS + to] = (short) bestExit;
+            }
+    }
+
+    private static Rooms roomNamed(String name) throws IOException {
+        for (Rooms room : Rooms.values())
+            if (room.getName().equals(name))
+                return room;
+        throw new IOException("Unknown room in " + FILE + ": " + name);
+    }
+
+    private static int tileAt(int x, int y) {
+        return x < 0 || y < 0 || x >= columns || y >= rows ? -1 : y*columns + x;
+    }
+
+    /** Get Methods.  */
+    public static int getColumns() { return columns; }
+    public static int getRows()    { return rows; }
+    public static int getTiles()   { return rows * columns; }
+
+    /** getX / getY give the pixel position of a tile's top-left corner on the board image.  */
+    public static int getX(int tile) { return (int) Math.round(originX + (tile % columns) * tileWidth); }
+    public static int getY(int tile) { return (int) Math.round(originY + (tile / columns) * tileHeight); }
+
+    public static boolean isCorridor(int tile) { return corridor[tile]; }
+
+    /** distance gives the # of steps from one room to another.  */
+    public static int distance(int from, int to) { return roomToRoom[from*ROOMS + to]; }
+
+    /** steps gives the # of steps from a corridor tile into a room.  */
+    public static int steps(int tile, int room) { return toRoom[tile*ROOMS + room]; }
+
+    /** secretPassage determines if a secret passage joins the two rooms.  */
+    public static boolean secretPassage(int from, int to) { return passage[from*ROOMS + to]; }
+
+    /** closestRoom finds the other room with the shortest round trip from a room and back.  */
+    public static int closestRoom(int from) {
+        int best = from == 0 ? 1 : 0;
+        for (int room=0; room<ROOMS; room++)
+            if (room != from && distance(from, room) + distance(room, from) < distance(from, best) + distance(best, from))
+                best = room;
+        return best;
+    }
+
+    /** stepsToDestination gives the # of steps left for a piece in a room, or on a tile when location is NONE.  */
+    public static int stepsToDestination(int location, int tile, int destination) {
+        return location != NONE ? distance(location, destination) : steps(tile, destination);
+    }
+
+    /** advance walks a piece that does not reach its destination along a shortest path.
+     * @param location Room the piece starts in, or NONE if it starts on a tile.
+     * @param tile Tile the piece starts on, when location is NONE.
+     * @param destination Room being walked to.
+     * @param roll # of steps, less than stepsToDestination.
+     * @return Tile the piece stops on.  */
+    public static int advance(int location, int tile, int destination, int roll) {
+        if (location != NONE) {
+            tile = exitTile[location*ROOMS + destination];
+            roll--;
+        }
+        for (; roll > 0; roll--)
+            tile = nextTile[tile*ROOMS + destination];
+        return tile;
+    }
+
+    /** path lists the tiles a piece crosses in order, as advance walks them.
+     *  A piece that reaches its destination crosses one tile fewer than the steps it takes,
+     *  the last step being into the room.
+     * @return Tiles crossed, ending with the tile the piece stops on if it does not reach the room.  */
+    public static int[] path(int location, int tile, int destination, int roll) {
+        int[] tiles = new int[Math.max(0, Math.min(roll, stepsToDestination(location, tile, destination) - 1))];
+        for (int i=0; i<tiles.length; i++) {
+            tile = i == 0 && location != NONE ? exitTile[location*ROOMS + destination] : nextTile[tile*ROOMS + destination];
+            tiles[i] = tile;
+        }
+        return tiles;
+    }
+}
@@ -25,7 +25,7 @@ public class CharacterSelectionUI extends JFrame implements ActionListener{
 
         for(GamePiece gamePiece : GamePiece.values()){
                 JButton option = new JButton();
-                option.setIcon(gamePiece.getCard().getImage());
+                option.setIcon(Assets.image(gamePiece.getCard()));
                 option.addActionListener(this);
                 characterButtons.add(option);
                 characters.add(gamePiece);
@@ -56,7 +56,13 @@ public class CharacterSelectionUI extends JFrame implements ActionListener{
         }
 
         if(playerSelectNum == 3){
+            final long picked = System.nanoTime();
             mainWindow = new MainUI(selection);
+            mainWindow.addWindowListener(new WindowAdapter() {
+                public void windowOpened(WindowEvent e) {
+                    Metrics.FIRST_FRAME.since(picked);
+                }
+            });
             dispose();
         }
     }
@@ -6,8 +6,11 @@ import javax.swing.event.*;
 import java.awt.*;
 import java.util.*;
 
-/** UIConsole Panel houses the visual of a Player's hand, the assumptions made, and console messages.  */
-public class Console extends JTabbedPane implements ChangeListener {
+/** UIConsole Panel houses the visual of a Player's hand, the assumptions made, and console messages.
+ *  Messages, assumptions and the tab shown are published on the ViewBus and drawn once a frame.
+ *  The game reads them back from this class at once.
+ *  Every message is also kept in a scrolling game log tab, backed by a bounded ConsoleLog.  */
+public class Console extends JTabbedPane implements ChangeListener, ViewBus.View {
 
     //Panel Components.
     private JLabel console;
@@ -18,10 +21,14 @@ public class Console extends JTabbedPane implements ChangeListener {
 
     private JButton[] hand; //Container for buttons of player's cards.
 
-    private final ImageIcon BACK_IMAGE = new ImageIcon("Images/Cards/Cardback/Cardback.jpg");
-    private final ImageIcon PAPER = new ImageIcon("Images/Display/Paper.jpg");
-    private final ImageIcon CARD_TAB_ICON = new ImageIcon("Images/Display/CardIcon Small.png");
-    private final ImageIcon CONSOLE_TAB_ICON = new ImageIcon("Images/Display/SpeechIcon Small.png");
+    private final ConsoleLog log = new ConsoleLog();
+    private JList<String> logList;
+    private JScrollPane logTab;
+
+    private final ImageIcon BACK_IMAGE = Assets.cardBack();
+    private final ImageIcon PAPER = Assets.image("Images/Display/Paper.jpg");
+    private final ImageIcon CARD_TAB_ICON = Assets.image("Images/Display/CardIcon Small.png");
+    private final ImageIcon CONSOLE_TAB_ICON = Assets.image("Images/Display/SpeechIcon Small.png");
 
     private final AudioPlayer page;
     private Player player;
@@ -29,13 +36,22 @@ public class Console extends JTabbedPane implements ChangeListener {
     private Card weaponAssumptionCard;
     private Card suspectAssumptionCard;
     private Card roomAssumptionCard;
+    private String message = "";
 
-    /** Constructor.
-     * @param player User's character.  */
-    public Console(Player player){
+    private ViewBus bus;
 
+    /** Constructor.
+     * @param player User's character.
+     * @param bus Bus this Console is drawn from.  */
+    public Console(Player player, ViewBus bus){
+        this(player.getHand());
+        bind(player, bus);
+    }
 
-        this.player = player;
+    /** Constructor for a Console showing a dealt hand, before the characters are picked.
+     *  Call bind before the game uses it.
+     * @param cards User's hand.  */
+    public Console(ArrayList<Card> cards){
 
         setTabPlacement(LEFT);
 
@@ -69,9 +85,8 @@ public class Console extends JTabbedPane implements ChangeListener {
         weaponAssumption.setIcon(BACK_IMAGE);
         assumptionArea.add(weaponAssumption);
 
-        //Create and add roomAssumption.
+        //Create and add roomAssumption. Its icon is the user's room, set by bind.
         roomAssumption = new JLabel();
-        roomAssumption.setIcon(player.getMovement().getEquivalentRoom().getImage());
         assumptionArea.add(roomAssumption);
 
         //Add areas to consoleTab.
@@ -82,22 +97,39 @@ public class Console extends JTabbedPane implements ChangeListener {
         hand = new JButton[6];
         for( int i=0; i<hand.length; i++){
             hand[i] = new JButton();
-            hand[i].setIcon(player.getHand().get(i).getImage());
+            hand[i].setIcon(Assets.image(cards.get(i)));
             cardsTab.add(hand[i]);
             hand[i].setVerticalAlignment(TOP);
         }
 
+        //Create game log. A fixed cell height lets the list find visible rows without measuring others.
+        logList = new JList<String>(log);
+        logList.setFixedCellHeight(16);
+        logList.setPrototypeCellValue("Mrs Peacock moved to the Billiard Room.");
+        logTab = new JScrollPane(logList);
+
         page = new AudioPlayer("Page.wav");
         addChangeListener(this);
 
         //Add tab images.
         addTab("", CARD_TAB_ICON, cardsTab);
         addTab("", CONSOLE_TAB_ICON, consoleTab);
+        addTab("Log", logTab);
         setBackgroundAt(0, Color.BLUE);
         setBackgroundAt(1, Color.RED);
         setTabLayoutPolicy(WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
     }
 
+    /** bind ties this Console to the user's character and the bus it is drawn from.
+     * @param player User's character, holding the hand this Console was built with.
+     * @param bus Bus this Console is drawn from.  */
+    public void bind(Player player, ViewBus bus){
+        this.player = player;
+        this.bus = bus;
+        bus.addView(this);
+        roomAssumption.setIcon(Assets.image(player.getMovement().getEquivalentRoom()));
+    }
+
     public void stateChanged(ChangeEvent e){
         page.play();
     }
@@ -109,17 +141,17 @@ public class Console extends JTabbedPane implements ChangeListener {
     /** Set Methods.  */
     public void setWeaponAssumption(Card assumption)  {
         weaponAssumptionCard = assumption;
-        weaponAssumption.setIcon(assumption.getImage());
+        bus.publish(ViewBus.Property.WEAPON, assumption);
     }
 
     public void setSuspectAssumption(Card assumption) {
         suspectAssumptionCard = assumption;
-        suspectAssumption.setIcon(assumption.getImage());
+        bus.publish(ViewBus.Property.SUSPECT, assumption);
     }
 
     public void setRoomAssumption(Card assumption)    {
         roomAssumptionCard = assumption;
-        roomAssumption.setIcon(assumption.getImage());
+        bus.publish(ViewBus.Property.ROOM, assumption);
     }
 
     public Card getWeaponAssumption(){ return weaponAssumptionCard; }
@@ -129,13 +161,16 @@ public class Console extends JTabbedPane implements ChangeListener {
     /** changeConsoleMessage adds given String to console display and switches tab to console.
      * @param message To be displayed in the console.  */
     public void changeConsoleMessage(String message){
-        setSelectedIndex(1);
-        console.setText(message);
+        this.message = message;
+        bus.publish(ViewBus.Property.TAB, 1);
+        bus.publish(ViewBus.Property.MESSAGE, message);
+        bus.publish(ViewBus.Property.LOG, log.append(message));
     }
 
     /** clearConsoleMessage removes content of console.  */
     public void clearConsoleMessage(){
-        console.setText("");
+        message = "";
+        bus.publish(ViewBus.Property.MESSAGE, message);
     }
 
     /** messageConfirmed checks whether message has been cleared.
@@ -144,20 +179,57 @@ public class Console extends JTabbedPane implements ChangeListener {
         weaponAssumption.setEnabled(true);
         suspectAssumption.setEnabled(true);
         roomAssumption.setEnabled(true);
-        return console.getText().equals("");
+        return message.equals("");
     }
 
     /** resetAssumption returns all assumption cards to the original cardback image.  */
     public void resetAssumption(){
-        suspectAssumption.setIcon(BACK_IMAGE);
-        weaponAssumption.setIcon(BACK_IMAGE);
-        roomAssumption.setIcon(BACK_IMAGE);
+        bus.publish(ViewBus.Property.SUSPECT, null);
+        bus.publish(ViewBus.Property.WEAPON, null);
+        bus.publish(ViewBus.Property.ROOM, null);
+    }
+
+    /** apply draws a published change.  */
+    public void apply(ViewBus.Property property, Object value){
+        switch(property){
+            case MESSAGE:
+                console.setText((String) value);
+                break;
+            case TAB:
+                setSelectedIndex((Integer) value);
+                break;
+            case SUSPECT:
+                suspectAssumption.setIcon(value == null ? BACK_IMAGE : Assets.image((Card) value));
+                break;
+            case WEAPON:
+                weaponAssumption.setIcon(value == null ? BACK_IMAGE : Assets.image((Card) value));
+                break;
+            case ROOM:
+                roomAssumption.setIcon(value == null ? BACK_IMAGE : Assets.image((Card) value));
+                break;
+            case LOG:
+                updateLog();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /** updateLog shows new log entries, following them if the log was scrolled to the end.  */
+    private void updateLog(){
+        JScrollBar bar = logTab.getVerticalScrollBar();
+        boolean following = bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum();
+        if(log.update() && following)
+            logList.ensureIndexIsVisible(log.getSize() - 1);
     }
 
+    /** getLog gives every message shown, oldest first.  */
+    public ConsoleLog getLog() { return log; }
+
     /** highlightDisprovables disables all hand buttons other than valid disprovables.
      * @param guess Cards assumed by outher player to be disproved.  */
     public void highlightDisprovables(ArrayList<Card> guess){
-        setSelectedIndex(0);
+        bus.publish(ViewBus.Property.TAB, 0);
 
         for(int i = 0; i<player.getHand().size(); i++){
             Card check = player.getHand().get(i);
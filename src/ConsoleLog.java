@@ -0,0 +1,72 @@
+import javax.swing.*;
+import java.util.*;
+
+/** ConsoleLog is the list model of the Console's game log: every message shown, newest last.
+ *  Messages are interned to int ids and kept in a fixed-capacity ring buffer, so memory stays
+ *  constant however long the game runs. The oldest entries are dropped once it is full.
+ *  A JList with a fixed cell height renders only the visible rows, looking each up by index.
+ *
+ *  append records at once. Listeners are told once per frame, through the ViewBus LOG Property,
+ *  so a fast-forwarded burst of messages is a single list update. Call from the event dispatch thread.  */
+public class ConsoleLog extends AbstractListModel<String> {
+
+    public static final int CAPACITY = 1 << 17;     //Entries kept. Power of 2.
+    private static final int MAX_MESSAGES = 1 << 12; //Distinct messages interned. Others show as OVERFLOW.
+    private static final String OVERFLOW = "...";
+
+    private final int[] ring = new int[CAPACITY];
+    private long appended;                          //Entries ever appended.
+
+    private final ArrayList<String> messages = new ArrayList<String>();
+    private final HashMap<String, Integer> ids = new HashMap<String, Integer>();
+
+    private long first;     //Sequence of row 0, as listeners last saw it.
+    private int size;       //Rows, as listeners last saw them.
+
+    /** append records a message. Returns the # of entries ever appended, for publishing.  */
+    public long append(String message) {
+        Integer id = ids.get(message);
+        if (id == null) {
+            if (messages.size() < MAX_MESSAGES) {
+                id = messages.size();
+                messages.add(message);
+                ids.put(message, id);
+            }
+            else
+                id = -1;
+        }
+        ring[(int) appended & (CAPACITY - 1)] = id;
+        return ++appended;
+    }
+
+    /** Get Methods.  */
+    public int getSize()     { return size; }
+    public long getAppended() { return appended; }
+
+    public String getElementAt(int index) {
+        int id = ring[(int) (first + index) & (CAPACITY - 1)];
+        return id < 0 ? OVERFLOW : messages.get(id);
+    }
+
+    /** update tells listeners about every entry appended since the last update.
+     * @return True if rows were added.  */
+    public boolean update() {
+        long newFirst = Math.max(0, appended - CAPACITY);
+        int newSize = (int) (appended - newFirst);
+
+        int removed = (int) Math.min(size, newFirst - first);
+        if (removed > 0) {
+            first = newFirst;
+            size -= removed;
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+        first = newFirst;
+        int added = newSize - size;
+        if (added > 0) {
+            int from = size;
+            size = newSize;
+            fireIntervalAdded(this, from, newSize - 1);
+        }
+        return added > 0;
+    }
+}
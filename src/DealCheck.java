@@ -0,0 +1,161 @@
+import java.util.*;
+
+/** DealCheck tests that Deck's deal is uniform, and fails if it is not.
+ *      owners: for each card, how often it lands in the envelope and in each seat's hand, against the
+ *              uniform odds of 1/k for the envelope and (k-1)/3k for each seat, k being the # of its type.
+ *              One chi-square test per card, 3 degrees of freedom.
+ *      pairs:  for each pair of cards, how often one seat holds both, against the uniform odds.
+ *              One z-test per pair.
+ *  Thresholds are Bonferroni corrected, so a uniform deal fails about 1 seed in 300.
+ *  The mean # of each type per seat is printed as well, the easiest bias to spot by eye.
+ *
+ *  Usage: java DealCheck [deals] [seed] [--cards]
+ *      --cards deals Card objects through a Deck, as MainUI does, and tests them converted back to masks.  */
+public class DealCheck {
+
+    private static final int CARDS = 21;
+    private static final int OWNERS = GameState.PLAYERS + 1;   //Envelope, then each seat.
+    private static final int[] TYPES = {GameState.WEAPONS, GameState.ROOMS, GameState.SUSPECTS};
+    private static final String[] TYPE_NAMES = {"weapons", "rooms", "suspects"};
+
+    private static final double CHI_SQUARE_LIMIT = 22.7;   //3 degrees of freedom, p = 0.001 / 21 cards.
+    private static final double Z_LIMIT = 4.43;            //Two-sided, p = 0.002 / 210 pairs.
+
+    private final long[][] owners = new long[CARDS][OWNERS];
+    private final long[][] together = new long[CARDS][CARDS];  //a < b: deals where one seat holds both.
+    private long deals;
+
+    /** add counts one deal.  */
+    void add(int envelope, int[] hands) {
+        deals++;
+        for (int card=0; card<CARDS; card++)
+            if ((envelope & 1 << card) != 0)
+                owners[card][0]++;
+        for (int p=0; p<hands.length; p++)
+            for (int a=0; a<CARDS; a++) {
+                if ((hands[p] & 1 << a) == 0)
+                    continue;
+                owners[a][p + 1]++;
+                for (int b=a+1; b<CARDS; b++)
+                    if ((hands[p] & 1 << b) != 0)
+                        together[a][b]++;
+            }
+    }
+
+    /** typeSize gives the # of cards of a card's type.  */
+    private static int typeSize(int card) {
+        for (int type : TYPES)
+            if ((type & 1 << card) != 0)
+                return Integer.bitCount(type);
+        throw new IllegalArgumentException("No card " + card);
+    }
+
+    /** seatOdds gives the uniform chance that one given seat holds a card.  */
+    private static double seatOdds(int card) {
+        double k = typeSize(card);
+        return (k - 1) / k / GameState.PLAYERS;
+    }
+
+    /** checkOwners runs the chi-square test of each card.
+     * @return Failure descriptions.  */
+    List<String> checkOwners() {
+        List<String> failures = new ArrayList<String>();
+        for (int card=0; card<CARDS; card++) {
+            double chiSquare = 0;
+            for (int o=0; o<OWNERS; o++) {
+                double expected = deals * (o == 0 ? 1.0 / typeSize(card) : seatOdds(card));
+                chiSquare += (owners[card][o] - expected) * (owners[card][o] - expected) / expected;
+            }
+            if (chiSquare > CHI_SQUARE_LIMIT)
+                failures.add(String.format("owners: card %d chi-square %.1f > %.1f, counts %s",
+                        card, chiSquare, CHI_SQUARE_LIMIT, Arrays.toString(owners[card])));
+        }
+        return failures;
+    }
+
+    /** checkPairs runs the z-test of each pair. Given neither card is in the envelope, one seat holds both
+     *  with chance 3 * 6/18 * 5/17.  */
+    List<String> checkPairs() {
+        List<String> failures = new ArrayList<String>();
+        for (int a=0; a<CARDS; a++)
+            for (int b=a+1; b<CARDS; b++) {
+                double outside = sameType(a, b) ? 1 - 2.0 / typeSize(a)
+                        : (1 - 1.0 / typeSize(a)) * (1 - 1.0 / typeSize(b));
+                double odds = outside * 5 / 17;
+                double expected = deals * odds;
+                double z = (together[a][b] - expected) / Math.sqrt(expected * (1 - odds));
+                if (Math.abs(z) > Z_LIMIT)
+                    failures.add(String.format("pairs: cards %d and %d together %d times, expected %.0f, z %.1f",
+                            a, b, together[a][b], expected, z));
+            }
+        return failures;
+    }
+
+    private static boolean sameType(int a, int b) {
+        for (int type : TYPES)
+            if ((type & 1 << a) != 0)
+                return (type & 1 << b) != 0;
+        return false;
+    }
+
+    /** printMeans prints the mean # of each type held by each seat, and the uniform mean.  */
+    void printMeans() {
+        for (int t=0; t<TYPES.length; t++) {
+            StringBuilder line = new StringBuilder(String.format("%-9s", TYPE_NAMES[t]));
+            for (int p=1; p<OWNERS; p++) {
+                long held = 0;
+                for (int card=0; card<CARDS; card++)
+                    if ((TYPES[t] & 1 << card) != 0)
+                        held += owners[card][p];
+                line.append(String.format(" seat %d %.3f", p - 1, (double) held / deals));
+            }
+            line.append(String.format("   uniform %.3f", (Integer.bitCount(TYPES[t]) - 1) / 3.0));
+            System.out.println(line);
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> options = new ArrayList<String>(Arrays.asList(args));
+        boolean cards = options.remove("--cards");
+        int count = options.size() > 0 ? Integer.parseInt(options.get(0)) : 1000000;
+        long seed = options.size() > 1 ? Long.parseLong(options.get(1)) : 1;
+
+        DealCheck check = new DealCheck();
+        Random rand = new Random(seed);
+        long start = System.nanoTime();
+        if (cards) {
+            //As MainUI deals: the envelope, then both AI hands, then the human's in seat 0.
+            for (int i=0; i<count; i++) {
+                Deck deck = new Deck(rand);
+                int envelope = GameState.maskOf(Arrays.asList(deck.fillEnvelope()));
+                int[] hands = new int[GameState.PLAYERS];
+                for (int p=1; p<=hands.length; p++)
+                    hands[p % hands.length] = GameState.maskOf(deck.dealHand());
+                check.add(envelope, hands);
+            }
+        }
+        else {
+            int[] envelopes = new int[1024];
+            int[] hands = new int[3 * envelopes.length];
+            int[] seats = new int[GameState.PLAYERS];
+            for (int done=0; done<count; done+=envelopes.length) {
+                int batch = Math.min(envelopes.length, count - done);
+                Deck.deal(rand, envelopes, hands, batch);
+                for (int i=0; i<batch; i++) {
+                    System.arraycopy(hands, 3 * i, seats, 0, seats.length);
+                    check.add(envelopes[i], seats);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d %s deals, seed %d, in %.1fs%n", count, cards ? "Card" : "bitmask", seed, seconds);
+        check.printMeans();
+        List<String> failures = check.checkOwners();
+        failures.addAll(check.checkPairs());
+        for (String failure : failures)
+            System.out.println("FAIL " + failure);
+        System.out.println(failures.isEmpty() ? "uniform" : failures.size() + " failures");
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+}
@@ -2,134 +2,86 @@ import java.util.*;
 import Game_Constants.*;
 
 /** Deck class emulates a deck of cards. It fills the game envelope
- *  and deals a set number of cards to the 3 players.  */
+ *  and deals a set number of cards to the 3 players.
+ *  Every deal is one partial Fisher-Yates shuffle over card ordinals, written straight to bitmasks.
+ *  Every deal with one card of each type in the envelope and 6 cards in each hand is equally likely,
+ *  as DealCheck tests. Simulators use the static deal methods; MainUI takes the same deal as Cards.  */
 public class Deck {
 
-    private ArrayList<Card> weapons;    //Container for all weapon cards.
-    private ArrayList<Card> rooms;      //Container for all room cards.
-    private ArrayList<Card> suspects;   //Container for all suspect cards.
+    public static final int HAND_SIZE = 6;
 
-    private Random rand = new Random();
+    private static final int CARDS = Card.values().length;
+
+    private final int envelope;
+    private final int[] hands = new int[GameState.PLAYERS];
+    private int dealt;                  //# of hands dealt so far.
 
     /** Constructor  */
     public Deck() {
-
-        //Instantiate ArrayLists.
-        weapons = new ArrayList<Card>();
-        rooms = new ArrayList<Card>();
-        suspects = new ArrayList<Card>();
-
-        //add cards to appropriate container.
-        for(Card card : Card.values()) {
-            if (card.getType() == 1)
-                weapons.add(card);
-            else if (card.getType() == 2)
-                rooms.add(card);
-            else if (card.getType() == 3)
-                suspects.add(card);
-        }
-
-        //Randomize order in each container.
-        Collections.shuffle(weapons);
-        Collections.shuffle(rooms);
-        Collections.shuffle(suspects);
+        this(new Random());
     }
 
-    /** Get a Card of type Weapon.  */
-    private Card drawWeapon() {
-
-        try {
-            Card drawn = weapons.get(0);    //Shallow copy of Card.
-            weapons.remove(0);              //Remove Card from container.
-            return drawn;                   //Return Card.
-        }
-        //Catch if ArrayList is Empty (all cards have been drawn).
-        catch (Exception e){
-            return null;
-        }
+    /** Constructor for a reproducible deck. The whole game is dealt at once.
+     * @param rand Source of randomness for the deal.  */
+    public Deck(Random rand) {
+        envelope = deal(rand, hands);
     }
 
-    /** Get a Card of type Location.  */
-    private Card drawRoom() {
-
-        try{
-            Card drawn = rooms.get(0);      //Shallow copy of Card.
-            rooms.remove(0);                //Remove Card from container.
-            return drawn;                   //Return Card.
-        }
-        //Catch if ArrayList is Empty (all cards have been drawn).
-        catch (Exception e) {
-            return null;
-        }
+    /** fillEnvelope gives the envelope's cards.
+     * @return Three cards, one of each type: weapon, room, then suspect.  */
+    public Card[] fillEnvelope(){
+        return GameState.cardsOf(envelope).toArray(new Card[3]);
     }
 
-    /** Get a Card of type Suspect.  */
-    private Card drawSuspects() {
-
-        try {
-            Card drawn = suspects.get(0);   //Shallow copy of Card.
-            suspects.remove(0);             //Remove Card from container.
-            return drawn;                   //Return Card.
-        }
-        //Catch is ArrayList is Empty (all cards have been drawn).
-        catch (Exception e){
-            return null;
-        }
+    /** dealHand deals the next of the 3 hands, 6 cards in Card order.  */
+    public ArrayList<Card> dealHand(){
+        return GameState.cardsOf(hands[dealt++]);
     }
 
-    /** drawCard Method returns a random type of card.
-     * @return Drawn card, randomized between all three ArrayLists.  */
-    private Card drawCard(){
-
-        //Set container for return and ne
-        Card toReturn = null;
-
-        while(toReturn == null && !allEmpty()){
-            int i = rand.nextInt(3)+1;
-
-            switch (i){
-                case 1:
-                    if(!weapons.isEmpty())
-                        toReturn = drawWeapon();
-                    break;
-                case 2:
-                    if(!rooms.isEmpty())
-                        toReturn = drawRoom();
-                    break;
-
-                case 3:
-                    if(!suspects.isEmpty())
-                       toReturn = drawSuspects();
-                    break;
-            }
-        }
-        return toReturn;
+    /** deal deals a whole game to bitmasks, as GameState stores them.
+     * @param hands Filled with the hand of each of the 3 players.
+     * @return Envelope.  */
+    public static int deal(Random rand, int[] hands) {
+        return dealInto(rand, new int[CARDS], hands, 0);
     }
 
-    /** fillEnvelope draws one of each type card from deck and places it in envelope.
-     * @return Three cards, one of each type.  */
-    public Card[] fillEnvelope(){
-        Card[] envelope = new Card[3];
-
-        envelope[0] = drawWeapon();
-        envelope[1] = drawRoom();
-        envelope[2] = drawSuspects();
-
-        return envelope;
+    /** deal fills arrays with many deals at once, reusing one scratch deck.
+     * @param envelopes Filled with the envelope of each deal.
+     * @param hands Filled with 3 hands per deal: deal i's hands start at 3*i.
+     * @param count # of deals.  */
+    public static void deal(Random rand, int[] envelopes, int[] hands, int count) {
+        int[] deck = new int[CARDS];
+        for (int i=0; i<count; i++)
+            envelopes[i] = dealInto(rand, deck, hands, 3 * i);
     }
 
-    /** dealHand deals 6 cards to a player.  */
-    public ArrayList<Card> dealHand(){
-        ArrayList<Card> hand = new ArrayList<Card>();
-
-        for(int i=1; i<=6; i++)
-            hand.add(drawCard());
-
-        return hand;
-    }
+    /** dealInto picks the envelope uniformly within each type, lines up the other 18 ordinals, and shuffles
+     *  only the first 12 places into the first two hands. The third hand is the 6 cards left.  */
+    private static int dealInto(Random rand, int[] deck, int[] hands, int offset) {
+        int envelope = 1 << Integer.numberOfTrailingZeros(GameState.WEAPONS) + rand.nextInt(Integer.bitCount(GameState.WEAPONS))
+                | 1 << Integer.numberOfTrailingZeros(GameState.ROOMS) + rand.nextInt(Integer.bitCount(GameState.ROOMS))
+                | 1 << Integer.numberOfTrailingZeros(GameState.SUSPECTS) + rand.nextInt(Integer.bitCount(GameState.SUSPECTS));
+
+        int left = 0;
+        for (int card=0; card<CARDS; card++)
+            if ((envelope & 1 << card) == 0)
+                deck[left++] = card;
+
+        int hand0 = 0, hand1 = 0;
+        for (int i=0; i<2 * HAND_SIZE; i++) {
+            int j = i + rand.nextInt(left - i);
+            int card = deck[j];
+            deck[j] = deck[i];
+            deck[i] = card;
+            if (i < HAND_SIZE)
+                hand0 |= 1 << card;
+            else
+                hand1 |= 1 << card;
+        }
 
-    /** allEmpty checks if all cards have been drawn.  */
-    public boolean allEmpty(){
-        return (weapons.isEmpty() && rooms.isEmpty() && suspects.isEmpty());
+        hands[offset] = hand0;
+        hands[offset + 1] = hand1;
+        hands[offset + 2] = GameState.ALL_CARDS & ~envelope & ~hand0 & ~hand1;
+        return envelope;
     }
 }
@@ -0,0 +1,230 @@
+import java.util.*;
+
+/** Deduction is one player's knowledge of where every card is, kept as card bitmasks like GameState.
+ *  It records which cards each player is known to hold or to lack, and for each disproval seen but
+ *  not shown, that the disprover holds one of the assumed cards. After each observation the facts
+ *  are propagated to a fixed point:
+ *      A player holding a card means everyone else lacks it.
+ *      A player known to hold a full hand lacks every other card.
+ *      A disproval whose other cards are lacked shows the one left.
+ *      A card lacked by every player is in the envelope, as is the last candidate of its type.
+ *      A card known not to be in the envelope, lacked by all players but one, is that player's.
+ *  Envelope candidates of a type are taken as equally likely, as InformationGain does.
+ *
+ *  Each card has a cell: its owner, the envelope, or its chance of being in the envelope.
+ *  Listeners are told which cells changed, so a view only redraws those. Headless: no Swing.  */
+public class Deduction {
+
+    public static final int UNKNOWN = -1;       //getOwner: not known.
+    public static final int ENVELOPE = -2;      //getOwner: known to be in the envelope.
+
+    private static final int ELIMINATED = -3;       //cell: not in the envelope, owner unknown.
+    private static final int CANDIDATES = 100;      //cell: in the envelope with 1 / (cell - CANDIDATES) chance.
+    private static final int CARDS = 21;
+    private static final int[] TYPES = {GameState.WEAPONS, GameState.ROOMS, GameState.SUSPECTS};
+
+    /** Listener is told which cells changed after an observation.  */
+    public interface Listener {
+        void cardsChanged(int cards);
+    }
+
+    private final int players;
+    private final int handSize;
+    private final int[] held;           //Per player, cards known held.
+    private final int[] lacks;          //Per player, cards known not held.
+    private final ArrayList<int[]> disprovals = new ArrayList<int[]>();    //Unseen disprovals: {player, cards}.
+    private int envelope;               //Cards known to be in the envelope.
+
+    private final int[] cells = new int[CARDS];     //Last state told to listeners, by Card ordinal.
+    private final ArrayList<Listener> listeners = new ArrayList<Listener>();
+
+    /** Constructor.
+     * @param observer Player whose knowledge this is.
+     * @param players # of players.
+     * @param hand Observer's hand.
+     * @param handSize # of cards in each hand.  */
+    public Deduction(int observer, int players, int hand, int handSize) {
+        this.players = players;
+        this.handSize = handSize;
+        held = new int[players];
+        lacks = new int[players];
+        held[observer] = hand;
+        lacks[observer] = GameState.ALL_CARDS & ~hand;
+        propagate();
+        for (int card=0; card<CARDS; card++)
+            cells[card] = cell(card);
+    }
+
+    public void addListener(Listener listener) { listeners.add(listener); }
+
+    /** Get Methods.  */
+    public int getHeld(int p)      { return held[p]; }
+    public int getLacks(int p)     { return lacks[p]; }
+    public int getEnvelope()       { return envelope; }
+
+    /** getOwner gives the player known to hold a card, ENVELOPE, or UNKNOWN.
+     * @param card Card ordinal.  */
+    public int getOwner(int card) {
+        int bit = 1 << card;
+        if ((envelope & bit) != 0)
+            return ENVELOPE;
+        for (int p=0; p<players; p++)
+            if ((held[p] & bit) != 0)
+                return p;
+        return UNKNOWN;
+    }
+
+    /** isEliminated returns true if a card is known not to be in the envelope.  */
+    public boolean isEliminated(int card) { return (getCandidates() & 1 << card) == 0; }
+
+    /** getCandidates gives the cards that may still be in the envelope.  */
+    public int getCandidates() {
+        int candidates = 0;
+        for (int type : TYPES)
+            candidates |= (envelope & type) != 0 ? envelope & type : type & ~owned();
+        return candidates;
+    }
+
+    /** getEnvelopeChance gives the chance a card is in the envelope.
+     * @param card Card ordinal.  */
+    public double getEnvelopeChance(int card) {
+        int candidates = getCandidates();
+        if ((candidates & 1 << card) == 0)
+            return 0;
+        for (int type : TYPES)
+            if ((type & 1 << card) != 0)
+                return 1.0 / Integer.bitCount(candidates & type);
+        return 0;
+    }
+
+    /** disproval records an assumption as the observer saw it.
+     *  Players after the assumer are asked in turn, so each one before the disprover lacks all three cards.
+     * @param assumer Player who assumed.
+     * @param guess Assumed cards, as a bitmask.
+     * @param disprover Player who disproved, or UNKNOWN if nobody could.
+     * @param shown Card ordinal shown to the observer, or UNKNOWN if the observer did not see it.  */
+    public void disproval(int assumer, int guess, int disprover, int shown) {
+        for (int p = (assumer + 1) % players; p != assumer && p != disprover; p = (p + 1) % players)
+            lacks[p] |= guess;
+        if (disprover != UNKNOWN) {
+            if (shown != UNKNOWN)
+                held[disprover] |= 1 << shown;
+            else
+                disprovals.add(new int[] {disprover, guess});
+        }
+        propagate();
+        notifyChanged();
+    }
+
+    /** restore replaces what is known with each player's held and lacked cards, as a GameState keeps them.
+     *  Unseen disprovals are not kept there, so this may then know less than before, but nothing false.  */
+    public void restore(int[] held, int[] lacks) {
+        System.arraycopy(held, 0, this.held, 0, players);
+        System.arraycopy(lacks, 0, this.lacks, 0, players);
+        disprovals.clear();
+        envelope = 0;
+        propagate();
+        notifyChanged();
+    }
+
+    private int owned() {
+        int owned = 0;
+        for (int p=0; p<players; p++)
+            owned |= held[p];
+        return owned;
+    }
+
+    /** propagate applies the rules until nothing more can be learned.  */
+    private void propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            int owned = owned();
+            for (int p=0; p<players; p++) {
+                int lack = lacks[p] | owned & ~held[p];
+                if (Integer.bitCount(held[p]) >= handSize)
+                    lack |= GameState.ALL_CARDS & ~held[p];
+                if (lack != lacks[p]) {
+                    lacks[p] = lack;
+                    changed = true;
+                }
+            }
+
+            for (Iterator<int[]> it = disprovals.iterator(); it.hasNext(); ) {
+                int[] disproval = it.next();
+                int p = disproval[0];
+                int left = disproval[1] & ~lacks[p];
+                if ((left & held[p]) != 0)
+                    it.remove();
+                else if (Integer.bitCount(left) == 1) {
+                    held[p] |= left;
+                    it.remove();
+                    changed = true;
+                }
+            }
+
+            int lackedByAll = GameState.ALL_CARDS;
+            for (int p=0; p<players; p++)
+                lackedByAll &= lacks[p];
+            int found = envelope | lackedByAll;
+            for (int type : TYPES) {
+                int left = type & ~owned;
+                if (Integer.bitCount(left) == 1)
+                    found |= left;
+            }
+            if (found != envelope) {
+                envelope = found;
+                changed = true;
+            }
+
+            //Cards of a type whose envelope card is known are held by someone.
+            int elsewhere = 0;
+            for (int type : TYPES)
+                if ((envelope & type) != 0)
+                    elsewhere |= type & ~envelope;
+            for (int card=0; card<CARDS; card++) {
+                int bit = 1 << card;
+                if ((elsewhere & bit) == 0 || (owned & bit) != 0)
+                    continue;
+                int holder = UNKNOWN;
+                for (int p=0; p<players; p++)
+                    if ((lacks[p] & bit) == 0)
+                        holder = holder == UNKNOWN ? p : ENVELOPE;
+                if (holder >= 0) {
+                    held[holder] |= bit;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    /** cell packs what a view shows for a card: its owner, ENVELOPE, ELIMINATED,
+     *  or CANDIDATES plus the # of envelope candidates of its type.  */
+    private int cell(int card) {
+        int owner = getOwner(card);
+        if (owner != UNKNOWN)
+            return owner;
+        int candidates = getCandidates();
+        if ((candidates & 1 << card) == 0)
+            return ELIMINATED;
+        for (int type : TYPES)
+            if ((type & 1 << card) != 0)
+                return CANDIDATES + Integer.bitCount(candidates & type);
+        return UNKNOWN;
+    }
+
+    private void notifyChanged() {
+        int changed = 0;
+        for (int card=0; card<CARDS; card++) {
+            int cell = cell(card);
+            if (cell != cells[card]) {
+                cells[card] = cell;
+                changed |= 1 << card;
+            }
+        }
+        if (changed != 0)
+            for (Listener listener : listeners)
+                listener.cardsChanged(changed);
+    }
+}
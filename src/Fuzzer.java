@@ -0,0 +1,503 @@
+import Game_Constants.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/** Fuzzer plays headless games through the live Deck, Player, AI and Movement objects, resolving
+ *  assumptions and accusations through the same Rules as MainUI, with random legal inputs for the
+ *  human seat. After every event it checks:
+ *      cards:      every card is in exactly one hand or the envelope.
+ *      memory:     no AI memory of a card type is empty, or has ruled out the answer.
+ *                  A player may bluff with their own cards. An undisproved bluff legitimately misleads
+ *                  the other AIs about the answer of the bluffed card's type, so that type is not checked for them.
+ *      disproval:  a disprover holds the card it shows, that card was assumed, and an AI assumer
+ *                  no longer suspects it.
+ *      accusation: an accusation names the accuser's current room.
+ *      position:   a piece is in a room, or on a tile on its way to a destination.
+ *      deduction:  the human's NoteBook Deduction only knows true facts, and keeps the answer a candidate.
+ *
+ *  Dice, deal and AI guesses come from Seeds, so a seed also replays in MainUI with -Dclue.seed.
+ *  Even seeds play the weighted AI and odd seeds InformedAI (-Dclue.ai=infogain).
+ *  Human inputs are recorded on a tape. A failing game is shrunk by deleting and lowering tape
+ *  entries while the same invariant still fails, then written out for replay.
+ *
+ *  Usage: java Fuzzer [games] [output directory]
+ *         java Fuzzer --replay file  */
+public class Fuzzer {
+
+    public static final int MAX_TURNS = 1000;   //Games longer than this end with no winner.
+
+    private static final String[] INVARIANTS = {"cards", "memory", "disproval", "accusation", "position", "deduction"};
+
+    /** Game is one headless game, played from a seed and a tape of human inputs.  */
+    static class Game {
+
+        private final long seed;
+        private final int[] replay;         //Human inputs to replay, or null to draw new ones.
+        private final Random inputs;        //Source of new human inputs.
+        private int[] tape = new int[32];   //Human inputs used, in order.
+        private int used;
+        private final StringBuilder trace;  //Event descriptions, or null when not tracing.
+
+        private final Random rand;          //Dice rolls.
+        private final Player[] players = new Player[3];
+        private final AI[] aiPlayers = new AI[2];
+        private final Card[] envelope;
+        private final int envelopeMask;
+        private final Deduction deduction;  //What the human's NoteBook shows.
+
+        private int turn, turns, events;
+        private boolean over, won;
+        private final int[] misled = new int[2];    //Per AI, card types it was misled on by an undisproved bluff.
+        private String invariant, detail;   //First invariant broken, if any.
+
+        /** Constructor.
+         * @param seed Seed of dice, deal and AI guesses.
+         * @param replay Human inputs to replay, or null to draw them from the seed.
+         * @param traced True to describe every event.  */
+        Game(long seed, int[] replay, boolean traced) {
+            this.seed = seed;
+            this.replay = replay;
+            inputs = new Random(~seed);
+            trace = traced ? new StringBuilder() : null;
+
+            //Pieces, as picked on CharacterSelectionUI.
+            GamePiece[] pieces = new GamePiece[3];
+            int first = choose(GamePiece.values().length);
+            for (int p=0; p<pieces.length; p++)
+                pieces[p] = GamePiece.values()[(first + p) % GamePiece.values().length];
+
+            //Created in the same order as MainUI, so Seeds hands out the same Randoms.
+            Seeds.reseed(seed);
+            rand = Seeds.next();
+            Deck deck = new Deck(Seeds.next());
+            envelope = deck.fillEnvelope();
+            envelopeMask = maskOf(envelope);
+            aiPlayers[0] = createAI(1, deck.dealHand(), pieces[1]);
+            aiPlayers[1] = createAI(2, deck.dealHand(), pieces[2]);
+            players[0] = new Player(0, deck.dealHand(), pieces[0]);
+            players[1] = aiPlayers[0];
+            players[2] = aiPlayers[1];
+            deduction = new Deduction(0, players.length, GameState.maskOf(players[0].getHand()), 6);
+
+            check();
+        }
+
+        private AI createAI(int num, ArrayList<Card> hand, GamePiece piece) {
+            return seed % 2 == 0 ? new AI(num, hand, piece) : new InformedAI(num, hand, piece);
+        }
+
+        /** Get Methods.  */
+        public String getInvariant()  { return invariant; }
+        public String getDetail()     { return detail; }
+        public int getEvents()        { return events; }
+        public int[] getTape()        { return Arrays.copyOf(tape, used); }
+        public String getTrace()      { return trace == null ? "" : trace.toString(); }
+        public boolean isWon()        { return won; }
+
+        /** play plays turns until an accusation, a broken invariant, or MAX_TURNS.
+         * @return True if an invariant was broken.  */
+        boolean play() {
+            while (!over && invariant == null && turns < MAX_TURNS)
+                playTurn();
+            return invariant != null;
+        }
+
+        /** choose takes the next human input, between 0 and options - 1.
+         *  Replayed tapes read 0 once they run out.  */
+        private int choose(int options) {
+            int value;
+            if (replay == null)
+                value = inputs.nextInt(options);
+            else
+                value = used < replay.length ? Math.abs(replay[used] % options) : 0;
+
+            if (used == tape.length)
+                tape = Arrays.copyOf(tape, 2 * used);
+            tape[used++] = value;
+            return value;
+        }
+
+        /** playTurn moves the current player, then assumes or accuses if they arrive in a room.  */
+        private void playTurn() {
+            Player player = players[turn];
+            Movement movement = player.getMovement();
+
+            //Human clicks any other room. AI chooses its own destination.
+            if (turn == 0) {
+                if (movement.isInARoom())
+                    movement.setDestination(pickRoom(movement.getLocation()));
+            }
+            else
+                aiPlayers[turn - 1].getNextAction(true);
+
+            int roll = rand.nextInt(6) + 1;
+            movement.gamePieceMove(roll);
+            if (trace != null)
+                trace.append(player.getName()).append(" rolls ").append(roll).append(movement.isInARoom()
+                        ? " into the " + movement.getLocation().getName() : " toward the " + movement.getDestination().getName())
+                        .append('\n');
+            if (!event())
+                return;
+
+            if (movement.isInARoom()) {
+                if (turn == 0) {
+                    int action = choose(10);
+                    if (action == 0)
+                        accuse(pickCard(3), pickCard(1));
+                    else if (action > 1)
+                        assume(pickCard(3), pickCard(1));
+                }
+                else {
+                    AI ai = aiPlayers[turn - 1];
+                    if (ai.getNextAction(false) == 2)
+                        accuse(ai.getPersonGuess(), ai.getWeaponGuess());
+                    else
+                        assume(ai.getPersonGuess(), ai.getWeaponGuess());
+                }
+            }
+
+            turn = (turn + 1) % players.length;
+            turns++;
+        }
+
+        /** pickRoom picks a room other than the human's own, as MainUI.roomClicked allows.  */
+        private Rooms pickRoom(Rooms location) {
+            int room = choose(Rooms.values().length - 1);
+            return Rooms.values()[room >= location.ordinal() ? room + 1 : room];
+        }
+
+        /** pickCard picks a card of a type the human does not hold, as the Guess window offers.  */
+        private Card pickCard(int type) {
+            ArrayList<Card> cards = new ArrayList<Card>();
+            for (Card card : Card.values())
+                if (card.getType() == type && !players[0].getHand().contains(card))
+                    cards.add(card);
+            return cards.get(choose(cards.size()));
+        }
+
+        /** assume resolves an assumption through Rules, as MainUI.displayDisproval does.  */
+        private void assume(Card suspect, Card weapon) {
+            ArrayList<Card> guess = new ArrayList<Card>();
+            guess.add(suspect);
+            guess.add(weapon);
+            guess.add(players[turn].getMovement().getEquivalentRoom());
+
+            Rules.Disproval disproval = Rules.assume(players, turn, guess);
+            int q = disproval.getDisprover();
+
+            //The human chooses which of their cards to show.
+            if (disproval.isPending()) {
+                ArrayList<Card> held = new ArrayList<Card>();
+                for (Card card : guess)
+                    if (players[0].getHand().contains(card))
+                        held.add(card);
+                disproval.show(held.get(choose(held.size())));
+            }
+
+            //An undisproved bluff misleads the other AIs. Only the assumer narrows rooms, and it knows its own cards.
+            if (q == Rules.NOBODY) {
+                for (Card card : guess)
+                    if (players[turn].getHand().contains(card) && card.getType() != 2)
+                        for (int i=0; i<aiPlayers.length; i++)
+                            if (turn - 1 != i)
+                                misled[i] |= GameState.typeMask(card.getType());
+                deduction.disproval(turn, GameState.maskOf(guess), Deduction.UNKNOWN, Deduction.UNKNOWN);
+                if (trace != null)
+                    trace.append(players[turn].getName()).append(" assumes ").append(guess).append(", not disproved\n");
+                event();
+                return;
+            }
+
+            Card shown = disproval.getShown();
+            deduction.disproval(turn, GameState.maskOf(guess), q, turn == 0 || q == 0 ? shown.ordinal() : Deduction.UNKNOWN);
+            if (trace != null)
+                trace.append(players[turn].getName()).append(" assumes ").append(guess)
+                        .append(", ").append(players[q].getName()).append(" shows ").append(shown).append('\n');
+            if (!players[q].getHand().contains(shown) || !guess.contains(shown))
+                fail("disproval", players[q].getName() + " showed " + shown + " for " + guess);
+            if (turn != 0 && (aiPlayers[turn - 1].getMemoryMask() & GameState.bit(shown)) != 0)
+                fail("disproval", players[turn].getName() + " still suspects " + shown + " after " + players[q].getName() + " showed it");
+            event();
+        }
+
+        /** accuse ends the game, checking an accusation against the envelope as MainUI.checkAccusation does.  */
+        private void accuse(Card suspect, Card weapon) {
+            Movement movement = players[turn].getMovement();
+            Card[] accusation = Rules.accusation(players[turn], suspect, weapon);
+            won = Rules.isCorrect(envelope, accusation);
+            over = true;
+
+            if (trace != null)
+                trace.append(players[turn].getName()).append(" accuses ").append(Arrays.asList(accusation))
+                        .append(won ? ", correctly\n" : ", wrongly\n");
+            if (!movement.isInARoom() || accusation[1] != Equivalent.card(movement.getLocation()))
+                fail("accusation", players[turn].getName() + " accused in " + accusation[1]
+                        + " while at " + movement.getLocation());
+            event();
+        }
+
+        /** event counts an event and checks every invariant.
+         * @return False if an invariant is broken.  */
+        private boolean event() {
+            events++;
+            if (invariant == null)
+                check();
+            return invariant == null;
+        }
+
+        private void fail(String invariant, String detail) {
+            if (this.invariant == null) {
+                this.invariant = invariant;
+                this.detail = detail;
+            }
+        }
+
+        /** check tests the cards, memory and position invariants.  */
+        private void check() {
+
+            //Every card in exactly one hand or the envelope.
+            int seen = envelopeMask;
+            if (Integer.bitCount(envelopeMask) != 3)
+                fail("cards", "Envelope " + Arrays.asList(envelope));
+            for (Player player : players) {
+                int hand = 0;
+                for (Card card : player.getHand()) {
+                    if (card == null) {
+                        fail("cards", player.getName() + " holds a null card");
+                        return;
+                    }
+                    if ((seen & GameState.bit(card)) != 0)
+                        fail("cards", card + " is dealt twice");
+                    hand |= GameState.bit(card);
+                    seen |= GameState.bit(card);
+                }
+                if (Integer.bitCount(hand) != 6)
+                    fail("cards", player.getName() + " holds " + player.getHand());
+            }
+            if (seen != GameState.ALL_CARDS)
+                fail("cards", "Missing " + GameState.cardsOf(GameState.ALL_CARDS & ~seen));
+
+            //No AI memory empty or wrong.
+            for (int a=0; a<aiPlayers.length; a++) {
+                AI ai = aiPlayers[a];
+                int memory = ai.getMemoryMask();
+                int answer = envelopeMask & ~misled[a];
+                String[] names = {"weapons", "rooms", "suspects"};
+                int[] types = {GameState.WEAPONS, GameState.ROOMS, GameState.SUSPECTS};
+                for (int i=0; i<types.length; i++)
+                    if ((memory & types[i]) == 0)
+                        fail("memory", ai.getName() + " has no " + names[i] + " left");
+                if ((memory & answer) != answer)
+                    fail("memory", ai.getName() + " ruled out " + GameState.cardsOf(answer & ~memory));
+                if ((memory & GameState.maskOf(ai.getHand())) != 0)
+                    fail("memory", ai.getName() + " suspects its own " + GameState.cardsOf(memory & GameState.maskOf(ai.getHand())));
+            }
+
+            //Deductions true, and the answer still possible.
+            for (int p=0; p<players.length; p++) {
+                int hand = GameState.maskOf(players[p].getHand());
+                if ((deduction.getHeld(p) & ~hand) != 0 || (deduction.getLacks(p) & hand) != 0)
+                    fail("deduction", players[p].getName() + " held " + GameState.cardsOf(deduction.getHeld(p))
+                            + ", lacks " + GameState.cardsOf(deduction.getLacks(p)) + ", has " + players[p].getHand());
+            }
+            if ((deduction.getEnvelope() & ~envelopeMask) != 0 || (deduction.getCandidates() & envelopeMask) != envelopeMask)
+                fail("deduction", "Envelope " + GameState.cardsOf(deduction.getEnvelope()) + ", candidates "
+                        + GameState.cardsOf(deduction.getCandidates()) + ", answer " + Arrays.asList(envelope));
+
+            //Pieces in a room, or in a corridor heading somewhere.
+            for (Player player : players) {
+                Movement movement = player.getMovement();
+                if (movement.isInARoom() ? movement.getTile() != 0 || movement.getDestination() != null
+                        : movement.getDestination() == null || movement.getTile() < 0
+                        || movement.getTile() >= BoardGrid.getTiles() || movement.getStepsToDestination() <= 0)
+                    fail("position", player.getName() + " at " + movement.getLocation() + ", tile " + movement.getTile()
+                            + ", heading to " + movement.getDestination());
+            }
+        }
+    }
+
+    private static int maskOf(Card[] cards) {
+        int mask = 0;
+        for (Card card : cards)
+            if (card != null)
+                mask |= GameState.bit(card);
+        return mask;
+    }
+
+    private final File directory;
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLongArray failures = new AtomicLongArray(INVARIANTS.length);
+    private final AtomicIntegerArray written = new AtomicIntegerArray(INVARIANTS.length);
+
+    /** Constructor.
+     * @param directory Where shrunk failing games are written.  */
+    public Fuzzer(File directory) {
+        this.directory = directory;
+    }
+
+    /** fuzz plays one game from a seed. The first failure of each invariant is shrunk and written out.  */
+    public void fuzz(long seed) throws IOException {
+        Game game = new Game(seed, null, false);
+        boolean failed = game.play();
+        games.incrementAndGet();
+        events.addAndGet(game.getEvents());
+        if (!failed)
+            return;
+
+        int invariant = Arrays.asList(INVARIANTS).indexOf(game.getInvariant());
+        failures.incrementAndGet(invariant);
+        if (written.compareAndSet(invariant, 0, 1))
+            write(shrink(seed, game));
+    }
+
+    /** shrink deletes and lowers human inputs, keeping each change that still breaks the same invariant.
+     * @return Traced replay of the smallest failing tape found.  */
+    public static Game shrink(long seed, Game failed) {
+        String invariant = failed.getInvariant();
+        int[] best = failed.getTape();
+
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int i=best.length - 1; i>=0; i--) {
+                int[] shorter = new int[best.length - 1];
+                System.arraycopy(best, 0, shorter, 0, i);
+                System.arraycopy(best, i + 1, shorter, i, best.length - i - 1);
+                if (fails(seed, shorter, invariant)) {
+                    best = shorter;
+                    progress = true;
+                }
+            }
+
+            for (int i=0; i<best.length; i++)
+                for (int value : new int[]{0, best[i] / 2, best[i] - 1})
+                    if (value < best[i]) {
+                        int[] lower = best.clone();
+                        lower[i] = value;
+                        if (fails(seed, lower, invariant)) {
+                            best = lower;
+                            progress = true;
+                            break;
+                        }
+                    }
+        }
+
+        Game game = new Game(seed, best, true);
+        game.play();
+        return game;
+    }
+
+    private static boolean fails(long seed, int[] tape, String invariant) {
+        Game game = new Game(seed, tape, false);
+        return game.play() && game.getInvariant().equals(invariant);
+    }
+
+    /** write saves a failing game as a replayable text file.  */
+    private void write(Game game) throws IOException {
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("Cannot create " + directory);
+
+        File file = new File(directory, game.getInvariant() + "-" + game.seed + ".txt");
+        PrintWriter out = new PrintWriter(new FileWriter(file));
+        try {
+            out.println("seed=" + game.seed);
+            out.println("tape=" + join(game.replay));
+            out.println("invariant=" + game.getInvariant());
+            out.println("events=" + game.getEvents());
+            out.println("# " + game.getDetail());
+            out.println("# Replay with: java Fuzzer --replay " + file.getPath());
+            for (String line : game.getTrace().split("\n"))
+                out.println("# " + line);
+        }
+        finally {
+            out.close();
+        }
+        System.out.println(game.getInvariant() + " broken: " + game.getDetail() + ", written to " + file);
+    }
+
+    private static String join(int[] values) {
+        StringBuilder text = new StringBuilder();
+        for (int i=0; i<values.length; i++)
+            text.append(i == 0 ? "" : ",").append(values[i]);
+        return text.toString();
+    }
+
+    /** replay plays a written game again and prints every event.  */
+    public static void replay(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        }
+        finally {
+            in.close();
+        }
+
+        String tape = properties.getProperty("tape", "").trim();
+        String[] values = tape.isEmpty() ? new String[0] : tape.split(",");
+        int[] replay = new int[values.length];
+        for (int i=0; i<values.length; i++)
+            replay[i] = Integer.parseInt(values[i].trim());
+
+        Game game = new Game(Long.parseLong(properties.getProperty("seed")), replay, true);
+        game.play();
+        System.out.print(game.getTrace());
+        System.out.println(game.getInvariant() == null ? "No invariant broken."
+                : game.getInvariant() + " broken after " + game.getEvents() + " events: " + game.getDetail());
+    }
+
+    /** run plays seeds 0 to count-1 in parallel on every core.  */
+    public void run(final long count) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        final AtomicLong next = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+
+        for (int t=0; t<threads; t++) {
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (long seed = next.getAndIncrement(); seed < count; seed = next.getAndIncrement())
+                            fuzz(seed);
+                    }
+                    catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+    }
+
+    /** report prints how often each invariant broke.  */
+    public void report() {
+        for (int i=0; i<INVARIANTS.length; i++)
+            System.out.printf("%-10s %d failures%n", INVARIANTS[i], failures.get(i));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--replay")) {
+            replay(new File(args[1]));
+            return;
+        }
+
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        Fuzzer fuzzer = new Fuzzer(new File(args.length > 1 ? args[1] : "fuzz"));
+
+        long start = System.nanoTime();
+        fuzzer.run(count);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        fuzzer.report();
+        System.out.printf("%d games, %d events in %.2fs (%.0f games/min)%n",
+                fuzzer.games.get(), fuzzer.events.get(), seconds, fuzzer.games.get() / seconds * 60);
+        long failed = 0;
+        for (int i=0; i<INVARIANTS.length; i++)
+            failed += fuzzer.failures.get(i);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,141 @@
+import Game_Constants.*;
+import java.io.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+/** GameLog is an asynchronous event log for hot paths.
+ *  Events are fixed-size records of ints written into a preallocated ring buffer without locks,
+ *  and a background thread formats and prints them. Producers never block: if the buffer is full
+ *  the event is dropped and counted. While the buffer is empty the background thread parks until a
+ *  producer unparks it, so an idle log never wakes up. Levels are compile-time constants, so guarding
+ *  a call with "if (GameLog.DEBUG)" removes it entirely when the level is off.  */
+public final class GameLog {
+
+    //Levels. Change and recompile to enable or disable.
+    public static final boolean DEBUG = false;
+    public static final boolean WARN = true;
+
+    //Events, and the meaning of their arguments.
+    public static final int ENVELOPE = 0;           //a: envelope card bitmask.
+    public static final int AI_MEMORY = 1;          //a: AI's Card ordinal, b: memory card bitmask.
+    public static final int CARD_NOT_IN_MEMORY = 2; //a: Card ordinal.
+    public static final int MEMORY_EMPTY = 3;       //No arguments.
+
+    private static final String[] LEVEL_NAMES = {"DEBUG", "WARN"};
+    private static final int LEVEL_DEBUG = 0, LEVEL_WARN = 1;
+
+    private static final int CAPACITY = 1 << 14;    //Records in the ring buffer. Power of 2.
+    private static final int FIELDS = 3;            //Ints per record: level << 16 | event, a, b.
+
+    private static final long[] times = new long[CAPACITY];
+    private static final int[] records = new int[CAPACITY * FIELDS];
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);  //Sequence + 1 once written.
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile long drained;           //Next sequence the drain thread will read.
+    private static volatile boolean parked;         //The drain thread is, or is about to be, parked.
+
+    private static final long START = System.nanoTime();
+    private static final PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+    private static final Thread drainer = new Thread(new Runnable() {
+        public void run() {
+            while (true) {
+                if (!drain()) {
+                    out.flush();
+                    //Announce the park before checking again, so a record published in between is not missed.
+                    parked = true;
+                    if (!isPublished())
+                        LockSupport.park();
+                    parked = false;
+                }
+            }
+        }
+    }, "GameLog");
+
+    static {
+        drainer.setDaemon(true);
+        drainer.start();
+
+        //Print whatever is left when the game exits.
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                while (drain());
+                out.flush();
+            }
+        }));
+    }
+
+    private GameLog() {}
+
+    /** debug logs an event at DEBUG level. Call only inside "if (GameLog.DEBUG)".  */
+    public static void debug(int event, int a, int b) { log(LEVEL_DEBUG, event, a, b); }
+
+    /** warn logs an event at WARN level. Call only inside "if (GameLog.WARN)".  */
+    public static void warn(int event, int a, int b)  { log(LEVEL_WARN, event, a, b); }
+
+    /** getDropped returns how many events were dropped because the buffer was full.  */
+    public static long getDropped() { return dropped.get(); }
+
+    /** log claims a slot, writes the record and publishes it.  */
+    private static void log(int level, int event, int a, int b) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - drained >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & (CAPACITY - 1);
+        times[slot] = System.nanoTime();
+        records[slot*FIELDS] = level << 16 | event;
+        records[slot*FIELDS + 1] = a;
+        records[slot*FIELDS + 2] = b;
+        published.set(slot, sequence + 1);
+        if (parked)
+            LockSupport.unpark(drainer);
+    }
+
+    /** isPublished returns true if the next record to drain has been written.  */
+    private static boolean isPublished() {
+        long sequence = drained;
+        return published.get((int) sequence & (CAPACITY - 1)) == sequence + 1;
+    }
+
+    /** drain prints the next published record.
+     * @return False if there was nothing to print.  */
+    private static synchronized boolean drain() {
+        if (!isPublished())
+            return false;
+        long sequence = drained;
+        int slot = (int) sequence & (CAPACITY - 1);
+
+        long time = times[slot];
+        int header = records[slot*FIELDS];
+        int a = records[slot*FIELDS + 1];
+        int b = records[slot*FIELDS + 2];
+        drained = sequence + 1;
+
+        out.printf("%8.3f %-5s %s%n", (time - START) / 1e9, LEVEL_NAMES[header >>> 16], format(header & 0xFFFF, a, b));
+        return true;
+    }
+
+    private static String format(int event, int a, int b) {
+        switch (event) {
+            case ENVELOPE:
+                return "Envelope: " + GameState.cardsOf(a);
+            case AI_MEMORY:
+                return Card.values()[a].getName() + ": weapons " + GameState.cardsOf(b & GameState.WEAPONS)
+                        + " rooms " + GameState.cardsOf(b & GameState.ROOMS)
+                        + " suspects " + GameState.cardsOf(b & GameState.SUSPECTS);
+            case CARD_NOT_IN_MEMORY:
+                return "No Card " + Card.values()[a].getName();
+            case MEMORY_EMPTY:
+                return "Empty list";
+            default:
+                return "Event " + event + " " + a + " " + b;
+        }
+    }
+}
@@ -1,6 +1,16 @@
+import javax.swing.*;
+
 public class GameMain {
 
     public static void main(String[] args) {
-        new IntroUI();
+        AdminServer.startIfConfigured();
+
+        //Swing components and Animator tasks are only touched on the event dispatch thread.
+        SwingUtilities.invokeLater(new Runnable() {
+            public void run() {
+                new IntroUI();
+            }
+        });
+        Preloader.start();
     }
 }
@@ -7,7 +7,7 @@ public class GameOverUI extends JFrame{
     /** Constructor.  */
     public GameOverUI(String display){
         JPanel panel = new JPanel();
-        JLabel message = new JLabel("", new ImageIcon(display), JLabel.CENTER);
+        JLabel message = new JLabel("", Assets.image(display), JLabel.CENTER);
 
         if(display.equals("Images/Display/Main Menu/win_screen.png"))
             new AudioPlayer("Win.wav").play();
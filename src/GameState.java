@@ -0,0 +1,247 @@
+import Game_Constants.*;
+import java.io.*;
+import java.util.*;
+
+/** GameState packs an entire game into a handful of primitive words and bitmasks.
+ *  Cards are stored as bits (bit n = Card ordinal n), so a clone is a single array copy.
+ *
+ *  Word layout:
+ *      0:      envelope (21 bits) | turn << 24 (2 bits) | phase << 26 (5 bits) | dice << 31 (3 bits)
+ *      1-3:    per player: hand (21 bits) | memory << 21 (21 bits) | position << 42 (18 bits)
+ *      4-12:   per player: 3 words of 8-bit weight bump counts, one byte per card.
+ *      13-15:  per player: cards it knows each seat holds, 21 bits per seat.
+ *      16-18:  per player: cards it knows each seat lacks, 21 bits per seat.
+ *
+ *  Position is location (4 bits) | destination << 4 (4 bits) | tile << 8 (10 bits),
+ *  where rooms are Rooms ordinals, NONE marks an empty slot, and tile is the BoardGrid tile of a piece
+ *  between rooms. Steps left are looked up from BoardGrid rather than stored.  */
+public class GameState {
+
+    public static final int PLAYERS = 3;
+    public static final int NONE = 15;
+    public static final int ALL_CARDS = (1 << 21) - 1;
+
+    //Card bitmasks of each type.
+    public static final int WEAPONS = typeMask(1);
+    public static final int ROOMS = typeMask(2);
+    public static final int SUSPECTS = typeMask(3);
+
+    //Phase flags, mirroring the conditionals in MainUI.
+    public static final int CAN_MOVE = 1;
+    public static final int IN_DISPROVE = 2;
+    public static final int IN_ACCUSE = 4;
+    public static final int TURN_TOGGLE = 8;
+    public static final int HUMAN_TURN = 16;
+
+    private static final int MAGIC = 0x434C5545;    //"CLUE", marks a saved state file.
+    static final int HEADER = 0;
+    static final int PLAYER_WORDS = 1;
+    static final int BUMP_WORDS = 4;
+    static final int HELD_WORDS = BUMP_WORDS + 3*PLAYERS;
+    static final int LACKS_WORDS = HELD_WORDS + PLAYERS;
+    static final int SIZE = LACKS_WORDS + PLAYERS;
+
+    private final long[] words;
+
+    /** Constructor for an empty state.  */
+    public GameState() {
+        words = new long[SIZE];
+        for (int p=0; p<PLAYERS; p++)
+            setPosition(p, NONE, NONE, 0);
+    }
+
+    GameState(long[] words) { this.words = words; }
+
+    /** getWord reads one packed word, for GameHistory.  */
+    long getWord(int index) { return words[index]; }
+
+    /** copy clones this state. One array allocation, no object graph.  */
+    public GameState copy() { return new GameState(words.clone()); }
+
+    /** Card bitmask helpers.  */
+    public static int bit(Card card) { return 1 << card.ordinal(); }
+
+    public static int maskOf(Collection<Card> cards) {
+        int mask = 0;
+        for (Card card : cards)
+            mask |= bit(card);
+        return mask;
+    }
+
+    public static int typeMask(int type) {
+        int mask = 0;
+        for (Card card : Card.values())
+            if (card.getType() == type)
+                mask |= bit(card);
+        return mask;
+    }
+
+    /** nthCard returns the ordinal of the n-th set bit in mask, counting from 0.  */
+    public static int nthCard(int mask, int n) {
+        for (int i=0; i<n; i++)
+            mask &= mask - 1;
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    public static ArrayList<Card> cardsOf(int mask) {
+        ArrayList<Card> cards = new ArrayList<Card>(Integer.bitCount(mask));
+        for (Card card : Card.values())
+            if ((mask & bit(card)) != 0)
+                cards.add(card);
+        return cards;
+    }
+
+    /** Get Methods.  */
+    public int getEnvelope()          { return (int) (words[HEADER] & ALL_CARDS); }
+    public int getTurn()              { return (int) (words[HEADER] >>> 24) & 3; }
+    public int getPhase()             { return (int) (words[HEADER] >>> 26) & 31; }
+    public int getDice()              { return (int) (words[HEADER] >>> 31) & 7; }
+    public boolean hasPhase(int flag) { return (getPhase() & flag) != 0; }
+    public int getHand(int p)         { return (int) (words[PLAYER_WORDS + p] & ALL_CARDS); }
+    public int getMemory(int p)       { return (int) (words[PLAYER_WORDS + p] >>> 21) & ALL_CARDS; }
+    public int getLocation(int p)     { return position(p) & 15; }
+    public int getDestination(int p)  { return (position(p) >>> 4) & 15; }
+    public int getTile(int p)         { return (position(p) >>> 8) & 1023; }
+
+    /** getSteps returns how many steps a player still has to walk to its destination.  */
+    public int getSteps(int p) {
+        return getDestination(p) == NONE ? 0 : BoardGrid.stepsToDestination(getLocation(p), getTile(p), getDestination(p));
+    }
+
+    /** getBumps returns how many times the weight of a card was raised in a player's memory.  */
+    public int getBumps(int p, int card) {
+        return (int) (words[BUMP_WORDS + 3*p + (card >>> 3)] >>> ((card & 7) << 3)) & 255;
+    }
+
+    /** getKnownHeld and getKnownLacks give what player p knows about seat q's hand.  */
+    public int getKnownHeld(int p, int q)  { return (int) (words[HELD_WORDS + p] >>> 21*q) & ALL_CARDS; }
+    public int getKnownLacks(int p, int q) { return (int) (words[LACKS_WORDS + p] >>> 21*q) & ALL_CARDS; }
+
+    private int position(int p) { return (int) (words[PLAYER_WORDS + p] >>> 42); }
+
+    /** Set Methods.  */
+    public void setEnvelope(int mask) { words[HEADER] = (words[HEADER] & ~(long) ALL_CARDS) | mask; }
+    public void setTurn(int turn)     { words[HEADER] = (words[HEADER] & ~(3L << 24)) | ((long) turn << 24); }
+    public void setPhase(int phase)   { words[HEADER] = (words[HEADER] & ~(31L << 26)) | ((long) phase << 26); }
+    public void setDice(int dice)     { words[HEADER] = (words[HEADER] & ~(7L << 31)) | ((long) dice << 31); }
+
+    public void setHand(int p, int mask) {
+        words[PLAYER_WORDS + p] = (words[PLAYER_WORDS + p] & ~(long) ALL_CARDS) | mask;
+    }
+
+    public void setMemory(int p, int mask) {
+        words[PLAYER_WORDS + p] = (words[PLAYER_WORDS + p] & ~((long) ALL_CARDS << 21)) | ((long) mask << 21);
+    }
+
+    public void setPosition(int p, int location, int destination, int tile) {
+        long position = location | destination << 4 | tile << 8;
+        words[PLAYER_WORDS + p] = (words[PLAYER_WORDS + p] & ((1L << 42) - 1)) | (position << 42);
+    }
+
+    public void setBumps(int p, int card, int bumps) {
+        int index = BUMP_WORDS + 3*p + (card >>> 3);
+        int shift = (card & 7) << 3;
+        words[index] = (words[index] & ~(255L << shift)) | ((long) Math.min(bumps, 255) << shift);
+    }
+
+    /** clearBumps resets every card weight of a player to its starting value.  */
+    public void clearBumps(int p) {
+        for (int i=0; i<3; i++)
+            words[BUMP_WORDS + 3*p + i] = 0;
+    }
+
+    public void setKnownHeld(int p, int q, int mask)  { setSeat(HELD_WORDS + p, q, mask); }
+    public void setKnownLacks(int p, int q, int mask) { setSeat(LACKS_WORDS + p, q, mask); }
+
+    private void setSeat(int index, int q, int mask) {
+        words[index] = (words[index] & ~((long) ALL_CARDS << 21*q)) | ((long) mask << 21*q);
+    }
+
+    /** capture packs the live game objects into a new state.
+     * @param players All players, indexed by turn #.
+     * @param envelope Mystery answer.
+     * @param turn Current turn #.
+     * @param phase Phase flags.
+     * @return Packed state.  */
+    public static GameState capture(Player[] players, Card[] envelope, int turn, int phase) {
+        GameState state = new GameState();
+
+        int envelopeMask = 0;
+        for (Card card : envelope)
+            if (card != null)
+                envelopeMask |= bit(card);
+        state.setEnvelope(envelopeMask);
+        state.setTurn(turn);
+        state.setPhase(phase);
+
+        for (int p=0; p<players.length; p++) {
+            state.setHand(p, maskOf(players[p].getHand()));
+            players[p].getMovement().capture(state, p);
+            if (players[p] instanceof AI)
+                ((AI) players[p]).captureMemory(state, p);
+        }
+        return state;
+    }
+
+    /** restore writes this state back into the live game objects.
+     * @param players All players, indexed by turn #.  */
+    public void restore(Player[] players) {
+        for (int p=0; p<players.length; p++) {
+
+            //Only rebuild a hand if it differs, since UI buttons are indexed by hand order.
+            ArrayList<Card> hand = players[p].getHand();
+            if (maskOf(hand) != getHand(p)) {
+                hand.clear();
+                hand.addAll(cardsOf(getHand(p)));
+            }
+
+            players[p].getMovement().restore(this, p);
+            if (players[p] instanceof AI)
+                ((AI) players[p]).restoreMemory(this, p);
+        }
+    }
+
+    /** getEnvelopeCards unpacks the envelope in weapon, room, suspect order.  */
+    public Card[] getEnvelopeCards() {
+        Card[] envelope = new Card[3];
+        for (Card card : cardsOf(getEnvelope()))
+            envelope[card.getType() - 1] = card;
+        return envelope;
+    }
+
+    /** save writes this state to disk.  */
+    public void save(File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(SIZE);
+            for (long word : words)
+                out.writeLong(word);
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    /** load reads a state previously written by save.  */
+    public static GameState load(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != SIZE)
+                throw new IOException("Not a saved game: " + file);
+            long[] words = new long[SIZE];
+            for (int i=0; i<SIZE; i++)
+                words[i] = in.readLong();
+            return new GameState(words);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    public boolean equals(Object o) {
+        return o instanceof GameState && Arrays.equals(words, ((GameState) o).words);
+    }
+
+    public int hashCode() { return Arrays.hashCode(words); }
+}
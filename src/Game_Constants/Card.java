@@ -1,8 +1,7 @@
 package Game_Constants;
 
-import javax.swing.*;
-
-/** eNum Card represents all cards present in the game.  */
+/** eNum Card represents all cards present in the game.
+ *  Images are loaded separately, on first use, by Assets.  */
 public enum Card {
 
     //Weapons
@@ -20,7 +19,6 @@ public enum Card {
 
 
     private String name;        //Card's name.
-    private ImageIcon image;    //Image on Card.
     private int type;           //Whether card is 1)Weapon, 2)Location, 3)Suspect.
 
     /** Constructor  */
@@ -29,26 +27,22 @@ public enum Card {
         //Set variables.
         this.name = name;
         this.type = type;
+    }
+
+    /** Get Methods for Card values  */
+    public String getName(){return name; }
+    public int getType(){ return type; }
 
-        //Directory of image is based on card type.
+    /** getImagePath gives the image file of Card. Directory of image is based on card type.  */
+    public String getImagePath(){
         switch (type){
             case 1:     //Weapon
-                image = new ImageIcon("Images/Cards/Weapon/" + name + ".jpg");
-                break;
-
+                return "Images/Cards/Weapon/" + name + ".jpg";
             case 2:     //Location
-                image = new ImageIcon("Images/Cards/Locations/" + name + ".jpg");
-                break;
-
-            case 3:     //Suspect
-                image = new ImageIcon("Images/Cards/Suspects/" + name + ".jpg");
-                break;
+                return "Images/Cards/Locations/" + name + ".jpg";
+            default:    //Suspect
+                return "Images/Cards/Suspects/" + name + ".jpg";
         }
     }
 
-    /** Get Methods for Card values  */
-    public String getName(){return name; }
-    public ImageIcon getImage(){ return image; }
-    public int getType(){ return type; }
-
 }
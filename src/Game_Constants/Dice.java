@@ -1,8 +1,7 @@
 package Game_Constants;
 
-import javax.swing.*;
-
-/** eNum Dice represents each side of a 6-sided die.  */
+/** eNum Dice represents each side of a 6-sided die.
+ *  Images are loaded separately, on first use, by Assets.  */
 public enum Dice {
 
     //Sides of a 6-sided dice.
@@ -10,15 +9,15 @@ public enum Dice {
     FOUR(4, "four.jpg"), FIVE(5, "five.jpg"), SIX(6, "six.jpg");
 
     private int side;           //Numerical value of dice side
-    private ImageIcon image;    //Image of dice side.
+    private String file;        //Image file name of dice side.
 
     /** Constructor  */
      Dice(int side, String directory){
         this.side = side;
-        image = new ImageIcon("Images/Dice/" + directory);
+        file = directory;
     }
 
     /** Get Methods  */
-    public ImageIcon getImage() {return image;}
+    public String getImagePath() {return "Images/Dice/" + file;}
     public int getSide() {return side;}
 }
@@ -0,0 +1,56 @@
+package Game_Constants;
+
+import java.util.*;
+
+/** Equivalent maps between the Rooms, Card and GamePiece eNums in constant time.
+ *  Tables are built once, by name, when the class loads. Lookups are EnumMap or ordinal array reads.  */
+public final class Equivalent {
+
+    public static final int NONE = -1;      //Ordinal of a missing equivalent.
+
+    private static final EnumMap<Rooms, Card> ROOM_TO_CARD = new EnumMap<Rooms, Card>(Rooms.class);
+    private static final EnumMap<Card, Rooms> CARD_TO_ROOM = new EnumMap<Card, Rooms>(Card.class);
+    private static final EnumMap<Card, GamePiece> CARD_TO_PIECE = new EnumMap<Card, GamePiece>(Card.class);
+
+    private static final int[] ROOM_CARD = new int[Rooms.values().length];     //Rooms ordinal to Card ordinal.
+    private static final int[] CARD_ROOM = new int[Card.values().length];     //Card ordinal to Rooms ordinal.
+    private static final int[] CARD_PIECE = new int[Card.values().length];    //Card ordinal to GamePiece ordinal.
+
+    static {
+        Arrays.fill(CARD_ROOM, NONE);
+        Arrays.fill(CARD_PIECE, NONE);
+
+        for (Rooms room : Rooms.values())
+            for (Card card : Card.values())
+                if (card.getType() == 2 && card.getName().equals(room.getName())) {
+                    ROOM_TO_CARD.put(room, card);
+                    CARD_TO_ROOM.put(card, room);
+                    ROOM_CARD[room.ordinal()] = card.ordinal();
+                    CARD_ROOM[card.ordinal()] = room.ordinal();
+                }
+
+        for (GamePiece piece : GamePiece.values()) {
+            CARD_TO_PIECE.put(piece.getCard(), piece);
+            CARD_PIECE[piece.getCard().ordinal()] = piece.ordinal();
+        }
+    }
+
+    private Equivalent() {}
+
+    /** card gives the location Card of a room.  */
+    public static Card card(Rooms room) { return ROOM_TO_CARD.get(room); }
+
+    /** card gives the suspect Card of a game piece.  */
+    public static Card card(GamePiece piece) { return piece.getCard(); }
+
+    /** room gives the Rooms eNum of a location card, or null for other cards.  */
+    public static Rooms room(Card card) { return CARD_TO_ROOM.get(card); }
+
+    /** piece gives the GamePiece of a suspect card, or null for other cards.  */
+    public static GamePiece piece(Card card) { return CARD_TO_PIECE.get(card); }
+
+    /** Ordinal versions, for packed states and bitmasks. Missing equivalents are NONE.  */
+    public static int roomCard(int room)  { return ROOM_CARD[room]; }
+    public static int cardRoom(int card)  { return CARD_ROOM[card]; }
+    public static int cardPiece(int card) { return CARD_PIECE[card]; }
+}
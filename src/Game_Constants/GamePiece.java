@@ -1,8 +1,7 @@
 package Game_Constants;
 
-import javax.swing.*;
-
-/** eNum GamePiece represents all usable game pieces in clue.  */
+/** eNum GamePiece represents all usable game pieces in clue.
+ *  Images are loaded separately, on first use, by Assets.  */
 public enum GamePiece {
 
     //Game Pieces.
@@ -15,18 +14,18 @@ public enum GamePiece {
 
     private Rooms rooms;        //Starting locations.
     private Card card;          //Card equivalent.
-    private ImageIcon image;    //Character Image.
+    private String file;        //Character Image file name.
 
     /* Constructor */
     GamePiece(Rooms rooms, Card card, String directory)
     {
         this.rooms = rooms;
         this.card = card;
-        image = new ImageIcon("Images/Display/" + directory);
+        file = directory;
     }
 
     /* Get methods */
-    public ImageIcon getImage() {return image;}
+    public String getImagePath() {return "Images/Display/" + file;}
     public Card getCard() {return card; }
     public Rooms getRooms() {return rooms;}
 
@@ -0,0 +1,26 @@
+package Game_Constants;
+
+/** eNum Speed represents the game speeds selectable in the Hub.  */
+public enum Speed {
+
+    NORMAL("1x", 1), FAST("10x", 10), INSTANT("Instant", 0);
+
+    private String label;   //Text shown on the Speed button.
+    private int factor;     //Multiple of normal speed, or 0 for no delay at all.
+
+    /** Constructor.  */
+    Speed(String label, int factor){
+        this.label = label;
+        this.factor = factor;
+    }
+
+    /** Get Methods.  */
+    public String getLabel() { return label; }
+    public int getFactor() { return factor; }
+
+    /** scale shortens a delay for this speed.  */
+    public int scale(int millis) { return factor == 0 ? 0 : millis / factor; }
+
+    /** next cycles 1x, 10x, Instant, 1x.  */
+    public Speed next() { return values()[(ordinal() + 1) % values().length]; }
+}
@@ -1,3 +1,4 @@
+import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
 import Game_Constants.*;
@@ -7,7 +8,7 @@ import javax.swing.*;
 public class Guess extends JFrame implements ActionListener{
 
 	//Components for JFrame.
-	private final JComboBox personBox, weaponBox;
+	private final JComboBox<Card> personBox, weaponBox;
 	private final JButton button;
 
 	private Card[] guess;	//Container for inputs chosen by player.
@@ -18,10 +19,14 @@ public class Guess extends JFrame implements ActionListener{
 		//Create Components.
 		guess = new Card[2];
 		JPanel panel = new JPanel();
-		personBox = new JComboBox();
-		weaponBox = new JComboBox();
+		personBox = new JComboBox<Card>();
+		weaponBox = new JComboBox<Card>();
 		button = new JButton("Guess");
 
+		//Show each Card by its name.
+		personBox.setRenderer(new CardRenderer());
+		weaponBox.setRenderer(new CardRenderer());
+
 		//Add components to panel.
 		panel.add(personBox);
 		panel.add(weaponBox);
@@ -31,18 +36,14 @@ public class Guess extends JFrame implements ActionListener{
 		//NOTE: Does not add cards in hand, to avoid user guessing cards that they hold.
 		for (Card card: Card.values()) {
 			if (card.getType()==1 && !hand.contains(card))
-				weaponBox.addItem(card.getName());
+				weaponBox.addItem(card);
 			if (card.getType()==3 && !hand.contains(card))
-				personBox.addItem(card.getName());
+				personBox.addItem(card);
 		}
 
 		//Set the initial return values of guess, in the event user does not select.
-		for (Card card: Card.values()) {
-			if(weaponBox.getItemAt(0).equals(card.getName()))
-				guess[1] = card;
-			if(personBox.getItemAt(0).equals(card.getName()))
-				guess[0] = card;
-		}
+		guess[0] = personBox.getItemAt(0);
+		guess[1] = weaponBox.getItemAt(0);
 
 		//Create Frame.
 		add(panel);
@@ -67,15 +68,23 @@ public class Guess extends JFrame implements ActionListener{
 	/** Action Listener assigns values to guess based off of user input.  */
 	public void actionPerformed(ActionEvent e){
 
-		for (Card card: Card.values()) {
+		//Suspect Guess Selected.
+		if (e.getSource() == personBox)
+			guess[0] = (Card) personBox.getSelectedItem();
 
-			//Suspect Guess Selected.
-			if (card.getName().equals(personBox.getSelectedItem()))
-				guess[0] = card;
+		//Weapon Guess Selected.
+		else if (e.getSource() == weaponBox)
+			guess[1] = (Card) weaponBox.getSelectedItem();
+	}
 
-			//Weapon Guess Selected.
-			else if (card.getName().equals(weaponBox.getSelectedItem()))
-				guess[1] = card;
+	/** CardRenderer displays a Card by its name rather than its constant.  */
+	private static class CardRenderer extends DefaultListCellRenderer {
+		public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+													  boolean isSelected, boolean cellHasFocus) {
+			super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+			if (value instanceof Card)
+				setText(((Card) value).getName());
+			return this;
 		}
 	}
 }
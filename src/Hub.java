@@ -8,7 +8,7 @@ import java.awt.event.*;
 /** Hub is a portion of the Main UI, located along the right wall of the frame.
  *  Hub displays the current player's name and picture, the current state of the dice,
  *  and buttons that open the game's additional windows.  */
-public class Hub extends JPanel implements ActionListener{
+public class Hub extends JPanel implements ActionListener, ViewBus.View {
 
     //Panel Components.
     private JLabel playerInfo;      //Display player's image. Name kept in border.
@@ -17,6 +17,8 @@ public class Hub extends JPanel implements ActionListener{
     private JButton makeAssumption; //Opens Assumption window.
     private JButton endTurn;
     private JButton openNotebook;   //Opens NoteBook window
+    private JButton speed;          //Cycles game speed.
+    private JButton undo;           //Returns to the start of the player's previous turn.
 
     //Panel Components that are class extensions.
     private NoteBook noteBookWindow;    //NoteBook Pop-Up window.
@@ -24,25 +26,36 @@ public class Hub extends JPanel implements ActionListener{
     private Guess accusationWindow;     //Accusation Pop-Up window.
 
     private AudioPlayer button;
-    public Hub(Player player){
+    private final ViewBus bus;
+
+    //Titles of the Guess windows.
+    public static final String ASSUMPTION = "Make Assumption";
+    public static final String ACCUSATION = "Make Accusation";
+
+    /** Constructor.
+     * @param player User's character.
+     * @param bus Bus the dice and turn indicator are drawn from.  */
+    public Hub(Player player, ViewBus bus){
+        this.bus = bus;
+        bus.addView(this);
 
         //Create Pop=Up Windows, initial visibility: false.
-        noteBookWindow = new NoteBook();
-        assumptionWindow = new Guess("Make Assumption", player.getHand());
-        accusationWindow = new Guess("Make Accusation", player.getHand());
+        noteBookWindow = Preloader.noteBook();
+        assumptionWindow = Preloader.guess(ASSUMPTION, player.getHand());
+        accusationWindow = Preloader.guess(ACCUSATION, player.getHand());
 
         //Layout of inherited JPanel is a 3h x 1w grid.
         setLayout(new GridLayout(3,1,0,2));
 
         //Create playerInfo label.
         playerInfo = new JLabel();
-        playerInfo.setIcon(player.getPlayerIcon().getImage());
+        playerInfo.setIcon(Assets.image(player.getPlayerIcon()));
         playerInfo.setBorder(BorderFactory.createTitledBorder(player.getName() + "'s Turn:"));
         playerInfo.setHorizontalAlignment(SwingConstants.CENTER);
 
         //Create diceWindow label.
         diceWindow = new JLabel();
-        diceWindow.setIcon(Dice.SIX.getImage());
+        diceWindow.setIcon(Assets.image(Dice.SIX));
         diceWindow.setBackground(Color.WHITE);
         diceWindow.setOpaque(true);
         diceWindow.setBorder(BorderFactory.createLoweredBevelBorder());
@@ -59,6 +72,9 @@ public class Hub extends JPanel implements ActionListener{
         endTurn = new JButton("End Turn");
         endTurn.setEnabled(false);
         openNotebook = new JButton("Open NoteBook");
+        speed = new JButton();
+        setSpeed(Speed.NORMAL);
+        undo = new JButton("Undo Turn");
 
         button = new AudioPlayer("Button.wav");
 
@@ -72,6 +88,8 @@ public class Hub extends JPanel implements ActionListener{
         optionArea.add(makeAssumption);
         optionArea.add(openNotebook);
         optionArea.add(endTurn);
+        optionArea.add(speed);
+        optionArea.add(undo);
 
         //Add all components to main JPanel.
         add(playerInfo);
@@ -100,15 +118,28 @@ public class Hub extends JPanel implements ActionListener{
 
     }
 
-    /** setDiceImage replaces image in dice JLabel
+    /** setDiceImage replaces image in dice JLabel on the next frame.
      *  @param image Image to replace current.  */
-    public void setDiceImage(ImageIcon image) {diceWindow.setIcon(image); }
+    public void setDiceImage(ImageIcon image) { bus.publish(ViewBus.Property.DICE, image); }
 
-    /** changeTurnIndicator method replaces image in playerInfo JLabel.
+    /** changeTurnIndicator method replaces image in playerInfo JLabel on the next frame.
      * @param nextPlayer Card that contains the name and image of next player.  */
-    public void changeTurnIndicator(Card nextPlayer){
-        playerInfo.setBorder(BorderFactory.createTitledBorder(nextPlayer.getName() + "'s Turn:"));
-        playerInfo.setIcon(nextPlayer.getImage());
+    public void changeTurnIndicator(Card nextPlayer){ bus.publish(ViewBus.Property.TURN, nextPlayer); }
+
+    /** apply draws a published change.  */
+    public void apply(ViewBus.Property property, Object value){
+        if(property == ViewBus.Property.DICE)
+            diceWindow.setIcon((ImageIcon) value);
+        else if(property == ViewBus.Property.TURN) {
+            Card nextPlayer = (Card) value;
+            playerInfo.setBorder(BorderFactory.createTitledBorder(nextPlayer.getName() + "'s Turn:"));
+            playerInfo.setIcon(Assets.image(nextPlayer));
+        }
+    }
+
+    /** setSpeed shows the current game speed on the Speed button.  */
+    public void setSpeed(Speed current){
+        speed.setText("Speed: " + current.getLabel());
     }
 
     /** toggleButtonsEnabled changes clickable state of buttons, to control user interaction.
@@ -125,5 +156,7 @@ public class Hub extends JPanel implements ActionListener{
     public JButton getMakeAccusation() { return makeAccusation; }
     public JButton getMakeAssumption() { return makeAssumption; }
     public JButton getEndTurn()        { return endTurn; }
+    public JButton getSpeed()          { return speed; }
+    public JButton getUndo()           { return undo; }
 
 }
@@ -0,0 +1,140 @@
+import Game_Constants.*;
+import java.util.*;
+
+/** InformationGain is a Strategy that makes the assumption expected to shrink the envelope's entropy the most.
+ *  Envelope candidates are taken as uniform over memory, so the entropy of a memory is the sum of
+ *  log2(cards left) over the three types. Each unseen assumed card is either in the envelope or held by
+ *  one of the two other players, and disproval runs clockwise from the assuming player, with each
+ *  disprover showing their first match.
+ *
+ *  The gain only depends on how many cards of each type are left and whether each assumed card is in
+ *  the player's hand, in memory, or known to be elsewhere. Every such knowledge key is scored once into
+ *  GAIN, so scoring all 36 assumptions is 36 table reads. Destinations are left to the Baseline.  */
+public class InformationGain implements Simulation.Strategy {
+
+    private static final int HAND = 0, MEMORY = 1, ELSEWHERE = 2;     //Status of an assumed card.
+
+    private static final int[] SUSPECTS = cardsOf(GameState.SUSPECTS);
+    private static final int[] WEAPONS = cardsOf(GameState.WEAPONS);
+    private static final int ROOM_COUNT = Integer.bitCount(GameState.ROOMS);
+
+    private static final double[] LOG2 = new double[ROOM_COUNT + 1];
+    private static final double[] GAIN;     //Gain in bits, indexed by key().
+
+    static {
+        for (int n=1; n<LOG2.length; n++)
+            LOG2[n] = Math.log(n) / Math.log(2);
+
+        GAIN = new double[key(SUSPECTS.length, ROOM_COUNT, WEAPONS.length, 26) + 1];
+        for (int s=0; s<=SUSPECTS.length; s++)
+            for (int r=0; r<=ROOM_COUNT; r++)
+                for (int w=0; w<=WEAPONS.length; w++)
+                    for (int status=0; status<27; status++)
+                        GAIN[key(s, r, w, status)] = gain(new int[]{s, w, r},
+                                new int[]{status % 3, status / 3 % 3, status / 9});
+    }
+
+    private final Simulation.Strategy baseline = new Simulation.Baseline(AIParameters.load());
+
+    public int chooseDestination(GameState state, int p, Random rand) {
+        return baseline.chooseDestination(state, p, rand);
+    }
+
+    public int chooseAssumption(GameState state, int p, Random rand) {
+        return choose(state.getMemory(p), state.getHand(p), Equivalent.roomCard(state.getLocation(p)), rand);
+    }
+
+    /** choose returns the highest scoring assumption, breaking ties at random.
+     * @param memory Cards the player still suspects.
+     * @param hand Player's own cards.
+     * @param room Card ordinal of the room the assumption is made in.
+     * @return Suspect Card ordinal << 8 | weapon Card ordinal.  */
+    public int choose(int memory, int hand, int room, Random rand) {
+        int base = key(Integer.bitCount(memory & GameState.SUSPECTS), Integer.bitCount(memory & GameState.ROOMS),
+                Integer.bitCount(memory & GameState.WEAPONS), 9*status(memory, hand, room));
+
+        int best = 0;
+        int ties = 0;
+        double bestScore = -1;
+        for (int s : SUSPECTS) {
+            int suspectKey = base + status(memory, hand, s);
+            for (int w : WEAPONS) {
+                double score = GAIN[suspectKey + 3*status(memory, hand, w)];
+                if (score > bestScore + 1e-12) {
+                    best = s << 8 | w;
+                    bestScore = score;
+                    ties = 1;
+                }
+                else if (score >= bestScore - 1e-12 && rand.nextInt(++ties) == 0)
+                    best = s << 8 | w;
+            }
+        }
+        return best;
+    }
+
+    /** score returns the expected information gain of one assumption, in bits.  */
+    public static double score(int memory, int hand, int suspect, int weapon, int room) {
+        return GAIN[key(Integer.bitCount(memory & GameState.SUSPECTS), Integer.bitCount(memory & GameState.ROOMS),
+                Integer.bitCount(memory & GameState.WEAPONS),
+                status(memory, hand, suspect) + 3*status(memory, hand, weapon) + 9*status(memory, hand, room))];
+    }
+
+    private static int key(int suspects, int rooms, int weapons, int status) {
+        return ((suspects * (ROOM_COUNT + 1) + rooms) * (WEAPONS.length + 1) + weapons) * 27 + status;
+    }
+
+    private static int status(int memory, int hand, int card) {
+        if ((hand & 1 << card) != 0)
+            return HAND;
+        return (memory & 1 << card) != 0 ? MEMORY : ELSEWHERE;
+    }
+
+    /** gain enumerates where each assumed card could be and returns the expected entropy reduction.
+     * @param counts Cards left in memory of each assumed card's type, in suspect, weapon, room order.
+     * @param status HAND, MEMORY or ELSEWHERE for each assumed card.  */
+    private static double gain(int[] counts, int[] status) {
+        double before = 0;
+        for (int count : counts)
+            before += LOG2[count];
+
+        double expected = 0;
+
+        //Each card is 0) in own hand or envelope, 1) held by next player, 2) held by the player after.
+        for (int a=0; a<27; a++) {
+            double chance = 1;
+            int first = -1, second = -1;
+            for (int i=0, code=a; i<3; i++, code/=3) {
+                int where = code % 3;
+                double known = status[i] == HAND ? 1
+                        : status[i] == MEMORY && counts[i] > 0 ? 1.0 / counts[i] : 0;
+
+                chance *= where == 0 ? known : (1 - known) / 2;
+                if (where == 1 && first < 0)
+                    first = i;
+                if (where == 2 && second < 0)
+                    second = i;
+            }
+            if (chance == 0)
+                continue;
+
+            //A shown card leaves memory; an undisproved assumption narrows each type to its assumed card.
+            int shown = first >= 0 ? first : second;
+            double after = 0;
+            for (int i=0; i<3; i++) {
+                if (shown >= 0)
+                    after += LOG2[i == shown && status[i] == MEMORY ? Math.max(0, counts[i] - 1) : counts[i]];
+                else
+                    after += status[i] == MEMORY ? 0 : LOG2[counts[i]];
+            }
+            expected += chance * after;
+        }
+        return before - expected;
+    }
+
+    private static int[] cardsOf(int mask) {
+        int[] cards = new int[Integer.bitCount(mask)];
+        for (int i=0; i<cards.length; i++)
+            cards[i] = GameState.nthCard(mask, i);
+        return cards;
+    }
+}
@@ -0,0 +1,37 @@
+import Game_Constants.*;
+import java.util.*;
+
+/** InformedAI makes the assumption with the highest expected information gain, rather than a weighted guess.  */
+public class InformedAI extends AI {
+
+	private static final InformationGain SELECTOR = new InformationGain();	//Holds no game state, so one serves every InformedAI.
+
+	private Card pendingWeapon;		//Weapon half of the last chosen assumption.
+	private Random rand = Seeds.next();
+
+	InformedAI(int num, ArrayList<Card> h, GamePiece p) {
+		super(num, h, p);
+	}
+
+	/** getPersonGuess chooses a whole assumption, and holds its weapon for getWeaponGuess.
+	 *  Accusations are left to the AI, since memory is already solved.  */
+	public Card getPersonGuess() {
+		int memory = getMemoryMask();
+		if (Integer.bitCount(memory & GameState.SUSPECTS) == 1 && Integer.bitCount(memory & GameState.WEAPONS) == 1)
+			return super.getPersonGuess();
+
+		int assumption = SELECTOR.choose(memory, GameState.maskOf(getHand()),
+				getMovement().getEquivalentRoom().ordinal(), rand);
+		pendingWeapon = Card.values()[assumption & 255];
+		return Card.values()[assumption >>> 8];
+	}
+
+	public Card getWeaponGuess() {
+		if (pendingWeapon == null)
+			return super.getWeaponGuess();
+
+		Card weapon = pendingWeapon;
+		pendingWeapon = null;
+		return weapon;
+	}
+}
@@ -10,7 +10,7 @@ public class IntroUI extends JFrame implements ActionListener, MouseListener{
 
     //Frame Components.
     private Area start_box, instruction_box;
-    private Timer showTitleCourse, showMain;
+    private Animator.Task showTitleCourse, showMain;
     private JLabel label;
     private AudioPlayer button, scream;
     private InstructionUI instructionWindow;
@@ -21,7 +21,7 @@ public class IntroUI extends JFrame implements ActionListener, MouseListener{
 
         //Construct Components.
         JPanel panel = new JPanel(new BorderLayout());
-        label = new JLabel("", new ImageIcon("Images/Display/Main Menu/BlackOut.png"), JLabel.CENTER);
+        label = new JLabel("", Assets.image("Images/Display/Main Menu/BlackOut.png"), JLabel.CENTER);
         panel.add(label, BorderLayout.CENTER);
 
         //Add Listener to Mouse.
@@ -43,8 +43,8 @@ public class IntroUI extends JFrame implements ActionListener, MouseListener{
         AudioPlayer.loopMain(true);
         button = new AudioPlayer("Button.wav");
 
-        showTitleCourse = new Timer(4000, this);
-        showMain = new Timer(3000, this);
+        showTitleCourse = new Animator.Task(4000, this);
+        showMain = new Animator.Task(3000, this);
         showTitleCourse.setRepeats(false);
         showMain.setRepeats(false);
         showTitleCourse.start();
@@ -52,13 +52,13 @@ public class IntroUI extends JFrame implements ActionListener, MouseListener{
 
     public void actionPerformed(ActionEvent e){
         if (e.getSource() == showTitleCourse){
-            label.setIcon(new ImageIcon("Images/Display/Main Menu/TitleCourse.png"));
+            label.setIcon(Assets.image("Images/Display/Main Menu/TitleCourse.png"));
             scream = new AudioPlayer("Scream.wav");
             scream.play();
             showMain.start();
         }
         if (e.getSource() == showMain)
-            label.setIcon(new ImageIcon("Images/Display/Main Menu/Title.png"));
+            label.setIcon(Assets.image("Images/Display/Main Menu/Title.png"));
 
     }
     /** Mouse Listener detects clicks within bounded areas.  */
@@ -12,6 +12,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
 
     //Frame Components.
     private Hub hub;
+    private final ViewBus bus = new ViewBus();     //Hub and Console changes, drawn once a frame.
     private Console bottomPanel;
     private Board board;
 
@@ -27,15 +28,25 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
     private AI[] aiPlayers;         //Of the players, those that are AI.
     private Card[] envelope;        //Array containing the mystery answer.
     private Card[] accusation;      //Array containing the accusers guess at answer.
+    private Rules.Disproval disproval;  //Assumption being disproved.
 
-    private javax.swing.Timer diceRoll, diceRollStop;   //Timers.
+    private Animator.Task diceRoll, diceRollStop;   //Timers.
+    private Animator.Task autoPlay;         //Confirms AI turn messages while fast-forwarding.
+    private Speed speed;                    //Current game speed.
     private AudioPlayer dice, button;
 
     private Deck deck;
+    private Deduction notes;        //What the human player knows, shown in the NoteBook.
+    private final GameHistory history = new GameHistory();  //Every version of this game, for undo.
+    private MonteCarloSearch search;    //Shared by MonteCarloAI opponents.
     private int easterEggCount;
     private final Area easterEggTrigger = new Area(new Rectangle(300,285,10,10));
 
-    private Random rand = new Random();
+    private Random rand;                            //Dice rolls. Seeded by -Dclue.seed.
+    private int diceShown;                          //Face of the last roll, 1-6, or 0 before the first.
+    private final Random flicker = new Random();    //Dice animation only, so its frame count can't change rolls.
+
+    private static final int FRAME_MILLIS = 33;     //Frame time while fast-forwarding instantly, about 30 fps.
 
     /** Constructor.  */
     public MainUI(ArrayList<GamePiece> selection){
@@ -48,8 +59,12 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         turnToggle = false;
         turn = 0;
 
-        //Instantiate classes and structures.
-        deck = new Deck();
+        Metrics.gameStarted();
+
+        //Instantiate classes and structures. The deal is usually made during the intro.
+        Preloader.Deal deal = Preloader.deal();
+        rand = deal.getRand();
+        deck = deal.getDeck();
         players = new Player[3];
         aiPlayers = new AI[2];
         accusation = new Card[3];
@@ -59,19 +74,31 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         setBackground(Color.BLACK);
 
         //Fill envelope with cards.
-        envelope = deck.fillEnvelope();
+        envelope = deal.getEnvelope();
 
         //Create AI and Players.
-        aiPlayers[0] = new AI(1, deck.dealHand(), selection.get(1));
-        aiPlayers[1] = new AI(2, deck.dealHand(), selection.get(2));
-        players[0] = new Player(0, deck.dealHand(), selection.get(0));
+        aiPlayers[0] = createAI(1, deal.getHand(1), selection.get(1));
+        aiPlayers[1] = createAI(2, deal.getHand(2), selection.get(2));
+        players[0] = new Player(0, deal.getHand(0), selection.get(0));
         players[1] = aiPlayers[0];
         players[2] = aiPlayers[1];
+        for (AI ai : aiPlayers)
+            if (ai instanceof MonteCarloAI)
+                ((MonteCarloAI) ai).setPlayers(players);
+
+        //The human's knowledge starts from their hand.
+        notes = new Deduction(0, players.length, GameState.maskOf(players[0].getHand()), players[0].getHand().size());
 
         //Initialize UI Components.
-        hub = new Hub(players[0]);
-        board = new Board(players);
-        bottomPanel = new Console(players[0]);
+        hub = new Hub(players[0], bus);
+        board = Preloader.board();
+        board.addPlayers(players);
+        bottomPanel = Preloader.console(players[0].getHand());
+        bottomPanel.bind(players[0], bus);
+        String[] names = new String[players.length];
+        for (int i=0; i<players.length; i++)
+            names[i] = players[i].getName();
+        hub.getNoteBookWindow().bind(notes, names);
 
         //Add Components.
         add(board);
@@ -93,14 +120,20 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         addMouseMotionListener(this);
 
         //Create Timers.
-        diceRoll = new javax.swing.Timer(50, this);
-        diceRollStop = new javax.swing.Timer(500, this);
+        diceRoll = new Animator.Task(50, this);
+        diceRollStop = new Animator.Task(500, this);
         diceRollStop.setRepeats(false);
+        autoPlay = new Animator.Task(FRAME_MILLIS, this);
+        speed = Speed.NORMAL;
+        for(Player player : players)
+            player.getMovement().setAnimated(true);
 
         //Add Action Listeners.
         hub.getMakeAccusation().addActionListener(this);
         hub.getMakeAssumption().addActionListener(this);
         hub.getEndTurn().addActionListener(this);
+        hub.getSpeed().addActionListener(this);
+        hub.getUndo().addActionListener(this);
         hub.getAssumptionWindow().getButton().addActionListener(this);
         hub.getAccusationWindow().getButton().addActionListener(this);
         bottomPanel.getEnterButton().addActionListener(this);
@@ -108,62 +141,71 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
             bottomPanel.getHand()[i].addActionListener(this);
 
 
-        System.out.println(envelope[0] + " " + envelope[1] + " " + envelope[2] );
+        if (GameLog.DEBUG)
+            GameLog.debug(GameLog.ENVELOPE, GameState.maskOf(Arrays.asList(envelope)), 0);
+
+        recordTurnStart();
+    }
+
+    /** createAI builds an AI opponent of the kind selected with -Dclue.ai:
+     *      mcts: MonteCarloAI, searching on -Dclue.ai.threads threads for -Dclue.ai.millis per decision.
+     *      infogain: InformedAI, making the most informative assumptions.
+     *      Otherwise the weighted AI.  */
+    private AI createAI(int num, ArrayList<Card> hand, GamePiece piece){
+        if ("mcts".equals(System.getProperty("clue.ai"))) {
+            if (search == null)
+                search = new MonteCarloSearch(
+                        Integer.getInteger("clue.ai.threads", Runtime.getRuntime().availableProcessors()),
+                        Integer.getInteger("clue.ai.millis", 250));
+            return new MonteCarloAI(num, hand, piece, search);
+        }
+        if ("infogain".equals(System.getProperty("clue.ai")))
+            return new InformedAI(num, hand, piece);
+        return new AI(num, hand, piece);
     }
 
     /** Action Listener block that controls flow of game logic
-     *  with a series of nested conditionals.  */
+     *  with a series of nested conditionals. Handling time is recorded in Metrics.  */
     public void actionPerformed(ActionEvent e){
+        long start = System.nanoTime();
+        handleAction(e);
+        Metrics.EDT_EVENT.since(start);
+    }
+
+    private void handleAction(ActionEvent e){
+
+        if(e.getSource() == autoPlay) {
+            fastForward();
+            return;
+        }
 
         if(e.getSource() != diceRoll && e.getSource() != diceRollStop)
             button.play();
 
+        //Speed can be changed at any time.
+        if(e.getSource() == hub.getSpeed()) {
+            setSpeed(speed.next());
+            return;
+        }
+
+        //Undo can be pressed at any time.
+        if(e.getSource() == hub.getUndo()) {
+            undo();
+            return;
+        }
+
         //If console isn't empty (forcing enter button press).
         if(!bottomPanel.messageConfirmed()) {
 
             //If enter button clicked.
-            if (e.getSource() == bottomPanel.getEnterButton()) {
-
-                //Clear console.
-                bottomPanel.clearConsoleMessage();
-
-                //If not human, Get AI next action.
-                if(!humanTurn && !inDisprove && !inAccuse)
-                    performAIAction(aiPlayers[turn-1].getNextAction(turnToggle));
-
-                //If in Assumption State.
-                else if(inDisprove)
-                    displayDisproval();
-
-                //If in Accusation State.
-                else if (inAccuse) {
-                    checkAccusation();
-                }
-
-                //If beginning of turn.
-                else if (turnToggle){
-                    //If not in room.
-                    if(!players[turn].getMovement().isInARoom()) {
-                        //Reset assumption area and move player.
-                        bottomPanel.resetAssumption();
-                        dice.play();
-                        diceRoll.start();
-                        diceRollStop.start();
-                    }
-                    //Else set assumption area to current room.
-                    else
-                        bottomPanel.setRoomAssumption(players[turn].getMovement().getEquivalentRoom());
-                }
-                //Else increment turn.
-                else
-                    nextTurn();
-            }
+            if (e.getSource() == bottomPanel.getEnterButton())
+                confirmMessage();
         }
 
         //If triggered by diceRoll timer.
         else if (e.getSource() == diceRoll) {
-            int randomImage = rand.nextInt(6);
-            hub.setDiceImage(Dice.values()[randomImage].getImage());
+            int randomImage = flicker.nextInt(6);
+            hub.setDiceImage(Assets.image(Dice.values()[randomImage]));
         }
         //If triggered by diceRollStop timer.
         else if (e.getSource() == diceRollStop) {
@@ -177,12 +219,14 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
 
                     //Leave assumption state.
                     inDisprove = false;
-                    //Remove card from assuming AI Memory.
-                    aiPlayers[turn-1].removeCard(players[0].getHand().get(i));
+                    //Show card to the assuming AI.
+                    disproval.show(players[0].getHand().get(i));
+                    disproval = null;
 
                     //Reset console panel and display disproval in console.
                     bottomPanel.resetButtons();
                     bottomPanel.changeConsoleMessage("You disproved " + players[turn].getName() + ".");
+                    record();
                 }
         }
         //If Human Player's turn and not disproving.
@@ -215,8 +259,102 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         }
     }
 
+    /** confirmMessage clears the console message and carries on with the game, as pressing Enter does.  */
+    private void confirmMessage(){
+
+        //Clear console.
+        bottomPanel.clearConsoleMessage();
+
+        //If not human, Get AI next action. A searching AI thinks off the EDT first, then carries on here.
+        if(!humanTurn && !inDisprove && !inAccuse) {
+            if(aiPlayers[turn-1] instanceof MonteCarloAI
+                    && ((MonteCarloAI) aiPlayers[turn-1]).think(turnToggle, new Runnable() {
+                        public void run() {
+                            if(isDisplayable())
+                                confirmMessage();
+                        }
+                    }))
+                return;
+
+            long start = System.nanoTime();
+            int action = aiPlayers[turn-1].getNextAction(turnToggle);
+            Metrics.AI_DECISION.since(start);
+            performAIAction(action);
+        }
+
+        //If in Assumption State.
+        else if(inDisprove)
+            displayDisproval();
+
+        //If in Accusation State.
+        else if (inAccuse) {
+            checkAccusation();
+        }
+
+        //If beginning of turn.
+        else if (turnToggle){
+            //If not in room.
+            if(!players[turn].getMovement().isInARoom()) {
+                //Reset assumption area and move player.
+                bottomPanel.resetAssumption();
+                rollDice();
+            }
+            //Else set assumption area to current room.
+            else
+                bottomPanel.setRoomAssumption(players[turn].getMovement().getEquivalentRoom());
+        }
+        //Else increment turn.
+        else
+            nextTurn();
+    }
+
+    /** setSpeed changes game speed. Faster speeds shorten or skip the dice animation,
+     *  mute sound effects, and confirm console messages during AI turns.  */
+    private void setSpeed(Speed speed){
+        this.speed = speed;
+        hub.setSpeed(speed);
+
+        diceRoll.setDelay(Math.max(1, speed.scale(50)));
+        diceRoll.setInitialDelay(speed.scale(50));
+        diceRollStop.setInitialDelay(speed.scale(500));
+        AudioPlayer.setMuted(speed != Speed.NORMAL);
+        for(Player player : players)
+            player.getMovement().setAnimated(speed == Speed.NORMAL);
+
+        if(speed == Speed.NORMAL)
+            autoPlay.stop();
+        else {
+            autoPlay.setDelay(speed == Speed.FAST ? 100 : FRAME_MILLIS);
+            autoPlay.restart();
+        }
+    }
+
+    /** fastForward confirms console messages while it is an AI's turn, so only the human's own choices stop the game.
+     *  At 10x one message is confirmed per tick. Instantly, moves are played in a loop for part of a frame,
+     *  then control returns to Swing, so the board repaints at most once per tick while the game runs ahead.  */
+    private void fastForward(){
+        long deadline = System.nanoTime() + FRAME_MILLIS * 1000000L / 2;
+        do {
+            if(turn == 0 || !isDisplayable() || bottomPanel.messageConfirmed())
+                return;
+            confirmMessage();
+        } while(speed == Speed.INSTANT && System.nanoTime() < deadline);
+    }
+
+    /** rollDice starts the dice animation, or moves at once when fast-forwarding instantly.  */
+    private void rollDice(){
+        dice.play();
+        if(speed == Speed.INSTANT)
+            displayMovement();
+        else {
+            diceRoll.start();
+            diceRollStop.start();
+        }
+    }
+
     /** Mouse Click listener used for setting player movement.  */
     public void mouseClicked(MouseEvent e){
+        long start = System.nanoTime();
 
         //If human player's turn to choose movement & not in a hall.
         if(canMove && humanTurn) {
@@ -225,9 +363,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
             //If point clicked is within a room, start movement timers (dice rolls).
             if (clicked != null && bottomPanel.messageConfirmed()) {
                 players[turn].getMovement().setDestination(clicked);
-                dice.play();
-                diceRoll.start();
-                diceRollStop.start();
+                rollDice();
             }
             else if (easterEggTrigger.contains(e.getPoint()))
                 easterEggCount++;
@@ -237,24 +373,22 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
                 easterEggCount = 0;
             }
         }
+        Metrics.EDT_EVENT.since(start);
     }
 
     /** Mouse Movement listener used for displaying intermediary passages.  */
     public void mouseMoved(MouseEvent e){
+        long start = System.nanoTime();
 
         //If human player's turn, player is in room, and all prompts are clear.
         if(humanTurn && canMove && bottomPanel.messageConfirmed()) {
             if (players[turn].getMovement().isInARoom()) {
 
-                //Directory for pathway image.
-                String directory = "Images/Display/Pathways/"
-                        + players[turn].getMovement().getLocation().getName() + "/";
-
                 Rooms hoverLocation = roomHovered(e.getPoint());
 
                 //Show board image updated with pathway, or refresh original image.
                 if (hoverLocation != null)
-                    board.setBoardIcon(new ImageIcon(directory + hoverLocation.getName() + ".jpeg"));
+                    board.setPathwayIcon(players[turn].getMovement().getLocation(), hoverLocation);
                 else
                     board.resetBoardIcon();
             }
@@ -263,6 +397,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
             else
                 board.resetBoardIcon();
         }
+        Metrics.EDT_EVENT.since(start);
     }
 
     /** roomHovered detects which room mouse pointer is located in.  */
@@ -314,6 +449,8 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
 
         //Display turn in console.
         bottomPanel.changeConsoleMessage(players[turn].getName() + "'s turn.");
+
+        recordTurnStart();
     }
 
     /** displayPlayerAccusation gets input accusation as done by human.  */
@@ -379,6 +516,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
 
         //Display assumption in console.
         bottomPanel.changeConsoleMessage(players[turn].getName() + " has made an assumption!");
+        record();
     }
 
     /** displayAIAssumption gets input assumption as done by AI.  */
@@ -391,11 +529,16 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
             inDisprove = true;
 
             //Display AI's assumption.
-            bottomPanel.setSuspectAssumption(aiPlayers[turn - 1].getPersonGuess());
-            bottomPanel.setWeaponAssumption(aiPlayers[turn - 1].getWeaponGuess());
+            long start = System.nanoTime();
+            Card suspect = aiPlayers[turn - 1].getPersonGuess();
+            Card weapon = aiPlayers[turn - 1].getWeaponGuess();
+            Metrics.AI_DECISION.since(start);
+            bottomPanel.setSuspectAssumption(suspect);
+            bottomPanel.setWeaponAssumption(weapon);
 
             //Display assumption in console.
             bottomPanel.changeConsoleMessage(players[turn].getName() + " has made an assumption!");
+            record();
         }
     }
 
@@ -409,7 +552,8 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
 
         //Create random number between 1-6 and set corresponding dice image in hub.
         int roll = rand.nextInt(6) + 1;
-        ImageIcon rollIcon = Dice.values()[roll - 1].getImage();
+        diceShown = roll;
+        ImageIcon rollIcon = Assets.image(Dice.values()[roll - 1]);
         hub.setDiceImage(rollIcon);
 
         //Move this player's game piece according to distance travelled.
@@ -438,6 +582,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
                 bottomPanel.changeConsoleMessage(players[turn].getName()
                         + " moved to the " + players[turn].getMovement().getLocation().getName() + ".");
             }
+            record();
         }
         //If player ended in hallway, end turn.
         else
@@ -447,7 +592,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
     /** displayDisproval checks opponent players ability to disprove and does so.
      *  Disprovals are made clockwise to the assuming player.
      *  The disproval is displayed if assuming player is human.
-     *  AI re-weighting is done here, based on assumption.  */
+     *  AI re-weighting and Memory updates are left to Rules.  */
     public void displayDisproval(){
 
         //Add guessed cards to an ArrayList.
@@ -459,96 +604,39 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         //Toggle humanTurn to true, for the purpose of button click recognition.
         humanTurn = true;
 
-        //Adjust AI weights.
-        for (int i= 0; i<aiPlayers.length; i++)
-            if(turn-1 != i)
-                aiPlayers[i].addWeight(guess);
-
-        //Action is dependent on which player has assumed.
-        switch(turn){
+        //Re-weight, disprove clockwise and update AI Memory, as the Rules say.
+        disproval = Rules.assume(players, turn, guess);
+        int disprover = disproval.getDisprover();
 
-            //Human player has assumed:
-            case 0:
+        //Record what the human sees: who disproves, and the card if it is shown to them.
+        notes.disproval(turn, GameState.maskOf(guess), disprover == Rules.NOBODY ? Deduction.UNKNOWN : disprover,
+                turn == 0 && disprover != Rules.NOBODY ? disproval.getShown().ordinal() : Deduction.UNKNOWN);
 
-                //If 1st AI can disprove.
-                if(players[1].disproved(guess) != null) {
-                    //Display disproval.
-                    inDisprove = false;
-                    bottomPanel.highlightDisproval(players[1].disproved(guess));
-                    bottomPanel.changeConsoleMessage(players[1].getName() + " disproves you.");
-                }
-                //If 2nd  AI can disprove.
-                else if(players[2].disproved(guess) != null) {
-                    //Display disproval.
-                    inDisprove = false;
-                    bottomPanel.highlightDisproval(players[2].disproved(guess));
-                    bottomPanel.changeConsoleMessage(players[2].getName() + " disproves you.");
-                }
-                //If neither player can disprove.
-                else {
-                    //Display no disproval in console.
-                    bottomPanel.changeConsoleMessage("You were not disproved.");
-                    inDisprove = false;
-                    aiPlayers[0].makeIrrefutable(guess, 0);
-                    aiPlayers[1].makeIrrefutable(guess, 0);
-                }
-                break;
-
-            //1st AI has assumed.
-            case 1:
-
-                //If 2nd AI can disprove.
-                if(players[2].disproved(guess) != null) {
-                    //Remove disproving card from Memory and display that
-                    //a disproval has occurred.
-                    inDisprove = false;
-                    aiPlayers[0].removeCard(players[2].disproved(guess));
-                    bottomPanel.changeConsoleMessage(players[1].getName()
-                            + " was disproved by " + players[2].getName());
-                }
-                //If human can disprove.
-                else if(players[0].disproved(guess) != null)
-                    //Highlight disproval buttons for user.
-                    bottomPanel.highlightDisprovables(guess);
-                //If neither player can disprove.
-                else {
-                    //Display no disproval in console.
-                    inDisprove = false;
-                    bottomPanel.changeConsoleMessage(players[1].getName() + " was not disproved.");
-                    aiPlayers[0].makeIrrefutable(guess, 1);
-                    aiPlayers[1].makeIrrefutable(guess, 1);
-                }
-                break;
-
-            //2nd AI has assumed.
-            case 2:
-
-                //If human can disprove.
-                if(players[0].disproved(guess) != null)
-                    //Highlight disproval buttons for user.
-                    bottomPanel.highlightDisprovables(guess);
-                //If 1st AI can disprove.
-                else if(players[1].disproved(guess) != null) {
-                    //Remove disproving card from Memory and display that
-                    //a disproval has occurred.
-                    inDisprove = false;
-                    aiPlayers[0].removeCard(players[1].disproved(guess));
-                    bottomPanel.changeConsoleMessage(players[2].getName()
-                            + " was disproved by " + players[1].getName());
-                }
-                //If neither player can disprove.
-                else {
-                    //Display no disproval in console.
-                    inDisprove = false;
-                    bottomPanel.changeConsoleMessage(players[2].getName() + " was not disproved.");
-                    aiPlayers[0].makeIrrefutable(guess, 2);
-                    aiPlayers[1].makeIrrefutable(guess, 2);
-                }
-                break;
+        //If nobody can disprove.
+        if (disprover == Rules.NOBODY) {
+            inDisprove = false;
+            bottomPanel.changeConsoleMessage(turn == 0 ? "You were not disproved."
+                    : players[turn].getName() + " was not disproved.");
+        }
+        //If human can disprove, highlight disproval buttons for user.
+        else if (disproval.isPending())
+            bottomPanel.highlightDisprovables(guess);
+        //If human has assumed, display the disproving card.
+        else if (turn == 0) {
+            inDisprove = false;
+            bottomPanel.highlightDisproval(disproval.getShown());
+            bottomPanel.changeConsoleMessage(players[disprover].getName() + " disproves you.");
+        }
+        //Else one AI disproved the other.
+        else {
+            inDisprove = false;
+            bottomPanel.changeConsoleMessage(players[turn].getName()
+                    + " was disproved by " + players[disprover].getName());
         }
 
         //Modify turnToggle;
         turnToggle = false;
+        record();
     }
 
     /** performAIAction enacts AI's next move based on int provided
@@ -560,9 +648,7 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
     private void performAIAction(int actionValue){
         switch (actionValue){
             case 1:
-                dice.play();
-                diceRoll.start();
-                diceRollStop.start();
+                rollDice();
                 break;
             case 2:
                 displayAIAccusation();
@@ -577,14 +663,12 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
      *   If correct display win screen, else display Game Over.  */
     private void checkAccusation(){
 
-        boolean winCheck = true;
-
-        for (int i=0; i<envelope.length; i++) {
-            if (envelope[i] != accusation[i])
-                winCheck = false;
-        }
+        boolean winCheck = Rules.isCorrect(envelope, accusation);
 
         AudioPlayer.loopMain(false);
+        AudioPlayer.setMuted(false);
+        autoPlay.stop();
+        Metrics.gameFinished();
 
         if(winCheck && turn ==0)
             new GameOverUI("Images/Display/Main Menu/win_screen.png");
@@ -595,6 +679,110 @@ public class MainUI extends JFrame implements MouseListener, ActionListener, Mou
         dispose();
     }
 
+    /** getHistory gives every recorded version of this game, for undo and analysis.  */
+    public GameHistory getHistory() { return history; }
+
+    /** record adds the game as it is now to the GameHistory.  */
+    private void record(){
+        history.record(snapshot());
+        hub.getUndo().setEnabled(undoTarget() >= 0);
+    }
+
+    /** recordTurnStart adds the first version of a new turn to the GameHistory.  */
+    private void recordTurnStart(){
+        history.startTurn(snapshot());
+        hub.getUndo().setEnabled(undoTarget() >= 0);
+    }
+
+    /** undoTarget gives the turn undo returns to: the start of the human player's current turn, or of
+     *  their previous turn if nothing has happened yet this turn.
+     * @return Turn #, or -1 if there is nothing to undo.  */
+    private int undoTarget(){
+        GameHistory.Version version = history.getCurrent();
+        int target = version.getTurn() - version.getTurn() % players.length;
+        if(history.getTurnStart(target) == version)
+            target -= players.length;
+        return Math.max(target, -1);
+    }
+
+    /** undo rewinds the game to the undoTarget turn. Rewinding is a lookup in the GameHistory.
+     *  Positions, hands, AI memories, the NoteBook and the dice face come back as they were.
+     *  The Random generators for dice and AI choices are not rewound, so a replayed turn rolls afresh.  */
+    private void undo(){
+        int target = undoTarget();
+        if(target < 0)
+            return;
+
+        //Abandon whatever was in progress.
+        diceRoll.stop();
+        diceRollStop.stop();
+        hub.getAssumptionWindow().setVisible(false);
+        hub.getAccusationWindow().setVisible(false);
+        setEnabled(true);
+
+        restoreSnapshot(history.rewindToTurn(target).toState());
+    }
+
+    /** snapshot packs the current game into a GameState, for saving or cloning.
+     *  The human player's notes go in their knowledge words, as an AI's knowledge does.  */
+    public GameState snapshot(){
+        int phase = (canMove ? GameState.CAN_MOVE : 0)
+                | (inDisprove ? GameState.IN_DISPROVE : 0)
+                | (inAccuse ? GameState.IN_ACCUSE : 0)
+                | (turnToggle ? GameState.TURN_TOGGLE : 0)
+                | (humanTurn ? GameState.HUMAN_TURN : 0);
+        GameState state = GameState.capture(players, envelope, turn, phase);
+        state.setDice(diceShown);
+        for (int q=0; q<players.length; q++) {
+            state.setKnownHeld(0, q, notes.getHeld(q));
+            state.setKnownLacks(0, q, notes.getLacks(q));
+        }
+        return state;
+    }
+
+    /** restoreSnapshot returns the game to a previously captured GameState and refreshes the display.
+     * @param state Snapshot, ideally taken at the start of a turn.  */
+    public void restoreSnapshot(GameState state){
+
+        //Restore model. Any disproval in progress is abandoned.
+        state.restore(players);
+        disproval = null;
+        envelope = state.getEnvelopeCards();
+        turn = state.getTurn();
+        canMove = state.hasPhase(GameState.CAN_MOVE);
+        inDisprove = state.hasPhase(GameState.IN_DISPROVE);
+        inAccuse = state.hasPhase(GameState.IN_ACCUSE);
+        turnToggle = state.hasPhase(GameState.TURN_TOGGLE);
+        humanTurn = state.hasPhase(GameState.HUMAN_TURN);
+        diceShown = state.getDice();
+
+        //Restore notes. Disprovals whose card was not seen are not kept, so a cell may be less sure than
+        //before the undo, but never wrong. The human's own hand is always known, even to older saves.
+        int[] held = new int[players.length];
+        int[] lacks = new int[players.length];
+        for (int q=0; q<players.length; q++) {
+            held[q] = state.getKnownHeld(0, q);
+            lacks[q] = state.getKnownLacks(0, q);
+        }
+        held[0] |= state.getHand(0);
+        lacks[0] |= GameState.ALL_CARDS & ~state.getHand(0);
+        notes.restore(held, lacks);
+
+        //Refresh display.
+        hub.changeTurnIndicator(players[turn].getPlayerIcon());
+        hub.toggleButtonsEnabled(humanTurn && !canMove);
+        hub.setDiceImage(Assets.image(diceShown == 0 ? Dice.SIX : Dice.values()[diceShown - 1]));
+        hub.getUndo().setEnabled(undoTarget() >= 0);
+        board.resetBoardIcon();
+        bottomPanel.resetButtons();
+        bottomPanel.resetAssumption();
+
+        if(turnToggle)
+            bottomPanel.changeConsoleMessage(players[turn].getName() + "'s turn.");
+        else
+            bottomPanel.clearConsoleMessage();
+    }
+
     /** Required for abstract implementations, but not used. */
     public void mousePressed(MouseEvent e){}
     public void mouseReleased(MouseEvent e){}
@@ -8,7 +8,7 @@ public class MemoryNode {
 	Card card;			//Represents a weapon, suspect, or location.
 
 	/** Constructor.  */
-	MemoryNode(Card c, int w, MemoryNode mn) {
+	MemoryNode(Card c, double w, MemoryNode mn) {
 		next=mn;
 		weight = w;
 		card = c;
@@ -0,0 +1,95 @@
+import java.util.concurrent.atomic.*;
+
+/** Metrics holds live counters and latency histograms for the game and the simulators.
+ *  Every update is a lock-free atomic add, so game threads never wait on a scrape.
+ *  AdminServer exports them.  */
+public final class Metrics {
+
+    /** Histogram counts latencies in power-of-2 microsecond buckets: bucket n holds values below 2^n us.
+     *  One more overflow bucket, index BUCKETS, holds everything from 2^(BUCKETS-1) us up.  */
+    public static final class Histogram {
+
+        public static final int BUCKETS = 24;     //Bounded buckets, up to 2^23 us, about 8 seconds.
+
+        private final String name;
+        private final String help;
+        private final LongAdder[] buckets = new LongAdder[BUCKETS + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        Histogram(String name, String help) {
+            this.name = name;
+            this.help = help;
+            for (int i=0; i<=BUCKETS; i++)
+                buckets[i] = new LongAdder();
+        }
+
+        /** record adds one latency.  */
+        public void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            int bucket = Math.min(BUCKETS, 64 - Long.numberOfLeadingZeros(micros));
+            buckets[bucket].increment();
+            count.increment();
+            sumNanos.add(nanos);
+        }
+
+        /** since records the time elapsed since a System.nanoTime() reading.  */
+        public void since(long start) { record(System.nanoTime() - start); }
+
+        /** Get Methods.  */
+        public String getName()     { return name; }
+        public String getHelp()     { return help; }
+        public long getCount()      { return count.sum(); }
+        public long getSumNanos()   { return sumNanos.sum(); }
+        public long getBucket(int n) { return buckets[n].sum(); }
+
+        /** getUpperBoundMicros gives the exclusive upper bound of a bucket.  */
+        public static long getUpperBoundMicros(int n) { return 1L << n; }
+    }
+
+    //Games.
+    public static final LongAdder GAMES_STARTED = new LongAdder();
+    public static final LongAdder GAMES_FINISHED = new LongAdder();
+
+    //Latencies.
+    public static final Histogram AI_DECISION = new Histogram("clue_ai_decision_seconds",
+            "Time for an AI or Strategy to choose a destination or assumption.");
+    public static final Histogram EDT_EVENT = new Histogram("clue_edt_event_seconds",
+            "Time spent handling one Swing event in MainUI.");
+    public static final Histogram FIRST_FRAME = new Histogram("clue_first_frame_seconds",
+            "Time from the last character pick to the game window opening.");
+    public static final Histogram FRAME_WORK = new Histogram("clue_frame_work_seconds",
+            "Time the Animator spends advancing animations in one frame.");
+    public static final Histogram FRAME_INTERVAL = new Histogram("clue_frame_interval_seconds",
+            "Time between Animator frames while an animation runs.");
+
+    //Search.
+    public static final LongAdder MCTS_ROLLOUTS = new LongAdder();
+
+    //Asset cache.
+    public static final LongAdder ASSET_HITS = new LongAdder();
+    public static final LongAdder ASSET_MISSES = new LongAdder();
+
+    public static final Histogram[] HISTOGRAMS = {AI_DECISION, EDT_EVENT, FIRST_FRAME, FRAME_WORK, FRAME_INTERVAL};
+
+    //Set once an AdminServer is running. Tools skip optional timing while it is off.
+    private static volatile boolean enabled;
+
+    private Metrics() {}
+
+    public static boolean isEnabled()  { return enabled; }
+    static void enable()               { enabled = true; }
+
+    /** gameStarted / gameFinished track games in flight.  */
+    public static void gameStarted()  { GAMES_STARTED.increment(); }
+    public static void gameFinished() { GAMES_FINISHED.increment(); }
+
+    public static long gamesInFlight() { return GAMES_STARTED.sum() - GAMES_FINISHED.sum(); }
+
+    /** assetHitRate gives the fraction of asset lookups served from cache.  */
+    public static double assetHitRate() {
+        long hits = ASSET_HITS.sum();
+        long total = hits + ASSET_MISSES.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,157 @@
+import Game_Constants.*;
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/** MonteCarloAI chooses its destination and assumptions with a MonteCarloSearch over the headless Simulation.
+ *  It falls back to the weighted AI choices until it can see the other players' positions.
+ *  A Deduction keeps what it knows each seat holds and lacks, so the search only samples deals it
+ *  could actually be facing.
+ *
+ *  In the game, think runs each search on a background thread and hands the result back on the EDT,
+ *  so the window stays responsive while the AI thinks. Undoing drops any search in flight.  */
+public class MonteCarloAI extends AI {
+
+	private static final ExecutorService THINKER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "MonteCarloAI");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private MonteCarloSearch search;	//Shared search engine.
+	private Player[] players;			//All players, used to snapshot the public game state.
+	private Deduction knowledge;		//What this AI knows of every seat's hand.
+	private Card pendingWeapon;			//Weapon half of the last searched assumption.
+
+	private int plannedRoom = -1;		//Destination searched ahead by think, or -1.
+	private int plannedAssumption = -1;	//Assumption searched ahead by think, or -1.
+	private boolean thinking;			//A search is running on the THINKER thread.
+	private int epoch;					//Bumped on restore, so a search started before it is dropped.
+
+	private Random rand = Seeds.next();
+
+	MonteCarloAI(int num, ArrayList<Card> h, GamePiece p, MonteCarloSearch search) {
+		super(num, h, p);
+		this.search = search;
+		knowledge = new Deduction(num, GameState.PLAYERS, GameState.maskOf(h), h.size());
+	}
+
+	/** Set Methods.  */
+	public void setPlayers(Player[] players) { this.players = players; }
+
+	/** think starts the search the next decision needs, on a background thread.
+	 * @param turnStart If it is the beginning of this AI's turn, as for getNextAction.
+	 * @param done Called on the EDT once the result is ready, unless the game was restored in the meantime.
+	 * @return False if the decision is ready or needs no search, so the caller can go on at once.  */
+	public boolean think(boolean turnStart, final Runnable done) {
+		final boolean destination = turnStart && getMovement().isInARoom();
+		if (players == null || destination && plannedRoom >= 0 || !destination && plannedAssumption >= 0)
+			return false;
+		if (!destination && (turnStart || getNextAction(false) != 3 || isSolved()))
+			return false;
+		if (thinking)
+			return true;
+
+		thinking = true;
+		final int started = epoch;
+		final GameState state = snapshot();
+		THINKER.execute(new Runnable() {
+			public void run() {
+				final int choice = destination ? search.chooseDestination(state, getPlayerNum(), rand)
+						: search.chooseAssumption(state, getPlayerNum(), rand);
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (started != epoch)
+							return;
+						thinking = false;
+						if (destination)
+							plannedRoom = choice;
+						else
+							plannedAssumption = choice;
+						done.run();
+					}
+				});
+			}
+		});
+		return true;
+	}
+
+	/** setDestination picks the room whose rollouts win most often.  */
+	public void setDestination() {
+		if (players == null) {
+			super.setDestination();
+			return;
+		}
+
+		int room = plannedRoom >= 0 ? plannedRoom : search.chooseDestination(snapshot(), getPlayerNum(), rand);
+		plannedRoom = -1;
+		getMovement().setDestination(Rooms.values()[room]);
+	}
+
+	/** getPersonGuess searches for a whole assumption, and holds its weapon for getWeaponGuess.
+	 *  Accusations are left to the AI, since memory is already solved.  */
+	public Card getPersonGuess() {
+		if (players == null || isSolved())
+			return super.getPersonGuess();
+
+		int assumption = plannedAssumption >= 0 ? plannedAssumption
+				: search.chooseAssumption(snapshot(), getPlayerNum(), rand);
+		plannedAssumption = -1;
+		pendingWeapon = Card.values()[assumption & 255];
+		return Card.values()[assumption >>> 8];
+	}
+
+	public Card getWeaponGuess() {
+		if (pendingWeapon == null)
+			return super.getWeaponGuess();
+
+		Card weapon = pendingWeapon;
+		pendingWeapon = null;
+		return weapon;
+	}
+
+	/** observe adds an assumption to this AI's Deduction.  */
+	public void observe(int assumer, int guess, int disprover, int shown) {
+		knowledge.disproval(assumer, guess, disprover == Rules.NOBODY ? Deduction.UNKNOWN : disprover, shown);
+	}
+
+	/** captureMemory also packs what this AI knows of each seat, for the search to respect.  */
+	public void captureMemory(GameState state, int p) {
+		super.captureMemory(state, p);
+		for (int q=0; q<GameState.PLAYERS; q++) {
+			state.setKnownHeld(p, q, knowledge.getHeld(q));
+			state.setKnownLacks(p, q, knowledge.getLacks(q));
+		}
+	}
+
+	/** restoreMemory also restores what this AI knew of each seat, and drops any search in flight.  */
+	public void restoreMemory(GameState state, int p) {
+		super.restoreMemory(state, p);
+		int[] held = new int[GameState.PLAYERS];
+		int[] lacks = new int[GameState.PLAYERS];
+		for (int q=0; q<GameState.PLAYERS; q++) {
+			held[q] = state.getKnownHeld(p, q);
+			lacks[q] = state.getKnownLacks(p, q);
+		}
+		knowledge.restore(held, lacks);
+
+		epoch++;
+		thinking = false;
+		plannedRoom = -1;
+		plannedAssumption = -1;
+		pendingWeapon = null;
+	}
+
+	/** isSolved returns true if memory holds one suspect and one weapon, leaving nothing to search.  */
+	private boolean isSolved() {
+		int memory = getMemoryMask();
+		return Integer.bitCount(memory & GameState.SUSPECTS) == 1 && Integer.bitCount(memory & GameState.WEAPONS) == 1;
+	}
+
+	/** snapshot packs the game as this AI sees it. Hidden cards are resampled by the search.  */
+	private GameState snapshot() {
+		return GameState.capture(players, new Card[0], getPlayerNum(), 0);
+	}
+}
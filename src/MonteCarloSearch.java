@@ -0,0 +1,443 @@
+import Game_Constants.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/** MonteCarloSearch is a single-observer information-set Monte Carlo tree search (SO-ISMCTS) Strategy.
+ *  The tree holds only the searching player's decisions: a Node per sequence of its actions, whatever
+ *  the hidden cards, opponents' moves and dice did in between. Each iteration samples the hidden cards
+ *  consistent with what the player knows (a determinization), then plays it out headlessly. At each of
+ *  the player's decisions it descends the tree by UCB1, counting availability rather than parent visits,
+ *  since which actions are legal depends on the world. Below the root, the only action ever added is the
+ *  one the Baseline rollout policy would take in that world; adding untried actions at random made the
+ *  player's own rollouts so weak that the search lost to Baseline. Once it adds a new Node it leaves the
+ *  tree, and the rest of the game is played by Baseline players. The win or loss is backed up the path.
+ *  Worker threads each grow their own tree, and the visits of the first decision are merged.  */
+public class MonteCarloSearch implements Simulation.Strategy {
+
+    private static final double EXPLORATION = 0.7;     //UCB1 exploration constant.
+    private static final int DESTINATION = 1 << 16;     //Marks a Node key as a destination room, not an assumption.
+    private static final int[] ASSUMPTIONS = assumptions();
+    private static final int DEAL_ATTEMPTS = 64;        //Envelopes tried before a determinization ignores what seats lack.
+
+    private final int threads;          //Worker threads per decision.
+    private final long budgetNanos;     //Wall-clock budget per decision.
+    private final ExecutorService pool;
+    private final Simulation.Strategy[] rolloutPolicy;
+    private final AIParameters params;  //Card weighting used to sample the envelope and in rollouts.
+
+    private final AtomicLong rollouts = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+
+    /** Constructor.
+     * @param threads Worker threads per decision.
+     * @param budgetMillis Wall-clock deadline per decision.  */
+    public MonteCarloSearch(int threads, int budgetMillis) {
+        this.threads = Math.max(1, threads);
+        budgetNanos = budgetMillis * 1000000L;
+
+        pool = this.threads == 1 ? null : Executors.newFixedThreadPool(this.threads, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MonteCarloSearch");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        params = AIParameters.load();
+        Simulation.Strategy baseline = new Simulation.Baseline(params);
+        rolloutPolicy = new Simulation.Strategy[]{baseline, baseline, baseline};
+    }
+
+    /** Get Methods for throughput metrics.  */
+    public long getRollouts() { return rollouts.get(); }
+
+    /** getRolloutsPerSecond gives rollouts completed per second of decision time, over all threads.  */
+    public double getRolloutsPerSecond() {
+        long nanos = searchNanos.get();
+        return nanos == 0 ? 0 : rollouts.get() * 1e9 / nanos;
+    }
+
+    /** chooseDestination searches over every room the player is not in.  */
+    public int chooseDestination(GameState state, int p, Random rand) {
+        int location = state.getLocation(p);
+        int[] actions = new int[Rooms.values().length - (location == GameState.NONE ? 0 : 1)];
+        int n = 0;
+        for (int room=0; room<Rooms.values().length; room++)
+            if (room != location)
+                actions[n++] = room;
+
+        return actions[search(state, p, actions, true, rand.nextLong())];
+    }
+
+    /** chooseAssumption searches over all 36 suspect and weapon pairs in the current room.  */
+    public int chooseAssumption(GameState state, int p, Random rand) {
+        return ASSUMPTIONS[search(state, p, ASSUMPTIONS, false, rand.nextLong())];
+    }
+
+    /** assumptions lists every assumption as suspect Card ordinal << 8 | weapon Card ordinal.  */
+    private static int[] assumptions() {
+        int[] actions = new int[Integer.bitCount(GameState.SUSPECTS) * Integer.bitCount(GameState.WEAPONS)];
+        int n = 0;
+        for (int s = GameState.SUSPECTS; s != 0; s &= s - 1)
+            for (int w = GameState.WEAPONS; w != 0; w &= w - 1)
+                actions[n++] = Integer.numberOfTrailingZeros(s) << 8 | Integer.numberOfTrailingZeros(w);
+        return actions;
+    }
+
+    /** search runs every worker until the deadline and merges their root statistics.
+     * @param destination True if actions are destinations, false if assumptions.
+     * @return Index of the most visited action.  */
+    private int search(final GameState state, final int p, final int[] actions, final boolean destination, long seed) {
+        final long start = System.nanoTime();
+        final long deadline = start + budgetNanos;
+
+        //A single-threaded search runs on the caller, so many games can search at once.
+        if (threads == 1) {
+            double[] visits = searchWorker(state, p, actions, destination, deadline, new Random(seed));
+            searchNanos.addAndGet(System.nanoTime() - start);
+            return mostVisited(visits);
+        }
+
+        List<Future<double[]>> results = new ArrayList<Future<double[]>>(threads);
+        for (int t=0; t<threads; t++) {
+            final long workerSeed = seed + t * 0x9E3779B97F4A7C15L;
+            results.add(pool.submit(new Callable<double[]>() {
+                public double[] call() {
+                    return searchWorker(state, p, actions, destination, deadline, new Random(workerSeed));
+                }
+            }));
+        }
+
+        //Merge root visits from every worker.
+        double[] visits = new double[actions.length];
+        for (Future<double[]> result : results) {
+            try {
+                double[] stats = result.get();
+                for (int a=0; a<actions.length; a++)
+                    visits[a] += stats[a];
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        searchNanos.addAndGet(System.nanoTime() - start);
+        return mostVisited(visits);
+    }
+
+    private static int mostVisited(double[] visits) {
+        int best = 0;
+        for (int a=1; a<visits.length; a++)
+            if (visits[a] > visits[best])
+                best = a;
+        return best;
+    }
+
+    /** Node is one decision of the searching player, reached by a sequence of its actions.
+     *  Availability counts the iterations in which its action was legal when its parent was visited.  */
+    private static final class Node {
+
+        final int action;
+        double visits, wins, available;
+        HashMap<Integer, Node> children;
+
+        Node(int action) { this.action = action; }
+    }
+
+    /** TreePolicy plays the searching seat in an iteration: by the tree while the path stays in it,
+     *  then as the Baseline rollout policy.  */
+    private final class TreePolicy implements Simulation.Strategy {
+
+        private final ArrayList<Node> path = new ArrayList<Node>();
+        private Node node;      //Node of the next decision, or null once the iteration has left the tree.
+        private Random rand;
+
+        /** start begins an iteration at the root.  */
+        void start(Node root, Random rand) {
+            path.clear();
+            node = root;
+            this.rand = rand;
+        }
+
+        public int chooseDestination(GameState state, int p, Random rand) {
+            if (node == null)
+                return rolloutPolicy[p].chooseDestination(state, p, rand);
+            int location = state.getLocation(p);
+            int[] keys = new int[Rooms.values().length - (location == GameState.NONE ? 0 : 1)];
+            int n = 0;
+            for (int room=0; room<Rooms.values().length; room++)
+                if (room != location)
+                    keys[n++] = DESTINATION | room;
+            return descend(keys, DESTINATION | rolloutPolicy[p].chooseDestination(state, p, rand)) & ~DESTINATION;
+        }
+
+        public int chooseAssumption(GameState state, int p, Random rand) {
+            if (node == null)
+                return rolloutPolicy[p].chooseAssumption(state, p, rand);
+            return descend(ASSUMPTIONS, rolloutPolicy[p].chooseAssumption(state, p, rand));
+        }
+
+        /** descend picks the next action from the current Node. If the rollout policy's choice is not yet in
+         *  the tree, it is added and ends the descent; at the root, every action is added in random order.
+         *  Otherwise every legal child counts one more availability, and the best by UCB1 is taken.
+         * @param keys Legal actions, as Node keys.
+         * @param preferred Key of the rollout policy's choice, or -1 at the root.
+         * @return Key of the action taken.  */
+        int descend(int[] keys, int preferred) {
+            if (node.children == null)
+                node.children = new HashMap<Integer, Node>();
+
+            if (preferred >= 0) {
+                if (!node.children.containsKey(preferred))
+                    return expand(preferred);
+            }
+            else {
+                int untried = 0;
+                for (int key : keys)
+                    if (!node.children.containsKey(key))
+                        untried++;
+                if (untried > 0) {
+                    int pick = rand.nextInt(untried);
+                    for (int key : keys)
+                        if (!node.children.containsKey(key) && pick-- == 0)
+                            return expand(key);
+                }
+            }
+
+            Node best = null;
+            double bestScore = -1;
+            for (int key : keys) {
+                Node child = node.children.get(key);
+                if (child == null)
+                    continue;
+                child.available++;
+                double score = child.wins/child.visits + EXPLORATION*Math.sqrt(Math.log(child.available)/child.visits);
+                if (score > bestScore) {
+                    best = child;
+                    bestScore = score;
+                }
+            }
+            path.add(best);
+            node = best;
+            return best.action;
+        }
+
+        /** expand adds a child to the current Node and leaves the tree.  */
+        private int expand(int key) {
+            Node child = new Node(key);
+            child.available = 1;
+            node.children.put(key, child);
+            path.add(child);
+            node = null;
+            return key;
+        }
+
+        /** backup adds the iteration's result to every Node on its path.  */
+        void backup(boolean won) {
+            for (Node visited : path) {
+                visited.visits++;
+                if (won)
+                    visited.wins++;
+            }
+        }
+    }
+
+    /** searchWorker grows a tree on one thread until the deadline.
+     * @return Visit counts of each root action.  */
+    private double[] searchWorker(GameState state, int p, int[] actions, boolean destination,
+                                  long deadline, Random rand) {
+        int[] keys = new int[actions.length];
+        for (int a=0; a<actions.length; a++)
+            keys[a] = destination ? DESTINATION | actions[a] : actions[a];
+
+        Node root = new Node(-1);
+        TreePolicy policy = new TreePolicy();
+        Simulation.Strategy[] seats = rolloutPolicy.clone();
+        seats[p] = policy;
+        int iterations = 0;
+
+        //Always try every action once.
+        while (iterations < actions.length || System.nanoTime() < deadline) {
+            policy.start(root, rand);
+            int action = policy.descend(keys, -1) & ~DESTINATION;
+
+            GameState world = determinize(state, p, rand);
+            Simulation sim = new Simulation(world, seats, rand);
+
+            if (destination) {
+                sim.setDestination(p, action);
+                if (sim.move(p, sim.roll()))
+                    sim.finishInRoom(p);
+            }
+            else
+                sim.assume(p, action >>> 8, action & 255);
+
+            if (!sim.isOver())
+                sim.nextTurn();
+
+            policy.backup(sim.playOut() == p);
+            iterations++;
+        }
+        rollouts.addAndGet(iterations);
+        Metrics.MCTS_ROLLOUTS.add(iterations);
+
+        double[] visits = new double[actions.length];
+        for (int a=0; a<actions.length; a++)
+            visits[a] = root.children.get(keys[a]).visits;
+        return visits;
+    }
+
+    /** determinize samples a full deal consistent with what player p knows.
+     *  The envelope is drawn from p's memory, weighted like the AI's card weights, leaving out cards p
+     *  knows a seat holds, and redrawn until the other cards can be dealt consistently. Each other seat
+     *  gets the cards p knows it holds, then a share of the rest that it is not known to lack.
+     *  Nothing of an opponent's memory, card weights or knowledge is carried over, since p cannot see them:
+     *  each starts over from its sampled hand, so the world depends only on what p has observed.
+     * @return Copy of state with hidden information resampled.  */
+    GameState determinize(GameState state, int p, Random rand) {
+        int hand = state.getHand(p);
+        int known = 0;
+        for (int q=0; q<GameState.PLAYERS; q++)
+            if (q != p)
+                known |= state.getKnownHeld(p, q) & ~hand;
+
+        //Memory can be wrong after a bluff, so later attempts draw from every card not known to be held.
+        for (int attempt=0; attempt<DEAL_ATTEMPTS; attempt++) {
+            int memory = attempt < DEAL_ATTEMPTS / 2 ? state.getMemory(p) : GameState.ALL_CARDS;
+            int envelope = sampleCard(state, p, memory & GameState.WEAPONS & ~hand & ~known, GameState.WEAPONS & ~hand & ~known, rand)
+                    | sampleCard(state, p, memory & GameState.ROOMS & ~hand & ~known, GameState.ROOMS & ~hand & ~known, rand)
+                    | sampleCard(state, p, memory & GameState.SUSPECTS & ~hand & ~known, GameState.SUSPECTS & ~hand & ~known, rand);
+            GameState world = deal(state, p, envelope, true, rand);
+            if (world != null)
+                return world;
+        }
+
+        //Few envelopes fit what p knows: try every one, keeping one of those that fit at random.
+        GameState kept = null;
+        int fits = 0;
+        for (int w = GameState.WEAPONS & ~hand & ~known; w != 0; w &= w - 1)
+            for (int r = GameState.ROOMS & ~hand & ~known; r != 0; r &= r - 1)
+                for (int s = GameState.SUSPECTS & ~hand & ~known; s != 0; s &= s - 1) {
+                    GameState world = deal(state, p, Integer.lowestOneBit(w) | Integer.lowestOneBit(r)
+                            | Integer.lowestOneBit(s), true, rand);
+                    if (world != null && rand.nextInt(++fits) == 0)
+                        kept = world;
+                }
+        if (kept != null)
+            return kept;
+
+        //Knowledge left no consistent deal at all: deal ignoring what seats hold and lack.
+        int memory = state.getMemory(p);
+        int envelope = sampleCard(state, p, memory & GameState.WEAPONS & ~hand, GameState.WEAPONS & ~hand, rand)
+                | sampleCard(state, p, memory & GameState.ROOMS & ~hand, GameState.ROOMS & ~hand, rand)
+                | sampleCard(state, p, memory & GameState.SUSPECTS & ~hand, GameState.SUSPECTS & ~hand, rand);
+        return deal(state, p, envelope, false, rand);
+    }
+
+    /** deal hands out the cards p cannot see around an envelope. Cards only one seat can hold go there,
+     *  then the rest are shuffled into the seats with room left, so every consistent deal is equally likely.
+     * @param constrained True to respect what p knows each seat holds and lacks.
+     * @return New world, or null if no deal fits the knowledge.  */
+    private GameState deal(GameState state, int p, int envelope, boolean constrained, Random rand) {
+        int players = GameState.PLAYERS;
+        int[] hands = new int[players];
+        int[] room = new int[players];
+        int unseen = GameState.ALL_CARDS & ~state.getHand(p) & ~envelope;
+
+        for (int q=0; q<players; q++) {
+            if (q == p)
+                continue;
+            room[q] = Integer.bitCount(state.getHand(q));
+            if (constrained) {
+                hands[q] = state.getKnownHeld(p, q) & unseen;
+                if ((state.getKnownHeld(p, q) & envelope) != 0 || Integer.bitCount(hands[q]) > room[q])
+                    return null;
+                unseen &= ~hands[q];
+                room[q] -= Integer.bitCount(hands[q]);
+            }
+        }
+
+        //Cards that only one seat could hold.
+        int free = 0;
+        for (int m = unseen; m != 0; m &= m - 1) {
+            int bit = Integer.lowestOneBit(m);
+            int holder = -1, holders = 0;
+            for (int q=0; q<players; q++)
+                if (q != p && (!constrained || (state.getKnownLacks(p, q) & bit) == 0)) {
+                    holder = q;
+                    holders++;
+                }
+            if (holders == 0)
+                return null;
+            if (holders > 1)
+                free |= bit;
+            else if (room[holder]-- > 0)
+                hands[holder] |= bit;
+            else
+                return null;
+        }
+
+        //Shuffle the rest and pour them into the seats with room, in turn order.
+        int[] cards = new int[Integer.bitCount(free)];
+        int n = 0;
+        for (int m = free; m != 0; m &= m - 1)
+            cards[n++] = Integer.numberOfTrailingZeros(m);
+        for (int i=n-1; i>0; i--) {
+            int j = rand.nextInt(i + 1);
+            int swap = cards[i];
+            cards[i] = cards[j];
+            cards[j] = swap;
+        }
+        int next = 0;
+        for (int q=0; q<players; q++)
+            while (q != p && room[q] > 0 && next < n) {
+                int bit = 1 << cards[next++];
+                if (constrained && (state.getKnownLacks(p, q) & bit) != 0)
+                    return null;
+                hands[q] |= bit;
+                room[q]--;
+            }
+
+        GameState world = state.copy();
+        world.setEnvelope(envelope);
+        for (int q=0; q<players; q++) {
+            if (q == p)
+                continue;
+            world.setHand(q, hands[q]);
+            world.setMemory(q, GameState.ALL_CARDS & ~hands[q]);
+            world.clearBumps(q);
+            for (int r=0; r<players; r++) {
+                world.setKnownHeld(q, r, 0);
+                world.setKnownLacks(q, r, 0);
+            }
+        }
+        return world;
+    }
+
+    /** sampleCard draws one card of a type, with probability proportional to p's weight for it.
+     * @param cards Cards to draw from.
+     * @param fallback Cards to draw from if there are none.
+     * @return Single card bitmask.  */
+    private int sampleCard(GameState state, int p, int cards, int fallback, Random rand) {
+        int mask = cards;
+        if (mask == 0)
+            mask = fallback;
+
+        double total = 0;
+        for (int m = mask; m != 0; m &= m - 1)
+            total += params.weight(state.getBumps(p, Integer.numberOfTrailingZeros(m)));
+
+        double pick = rand.nextDouble() * total;
+        int card = Integer.numberOfTrailingZeros(mask);
+        for (int m = mask; m != 0; m &= m - 1) {
+            card = Integer.numberOfTrailingZeros(m);
+            pick -= params.weight(state.getBumps(p, card));
+            if (pick < 0)
+                break;
+        }
+        return 1 << card;
+    }
+}
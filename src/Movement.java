@@ -1,17 +1,31 @@
 import Game_Constants.*;
 
-import java.awt.*;
 import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
 
-/** Movement Class contains methods for translating player pieces around the board.  */
-public class Movement {
+/** Movement Class contains methods for translating player pieces around the board.
+ *  Pieces walk tile by tile along shortest paths of the BoardGrid.
+ *  When animated, the gamePiece glides along the tiles it crosses, moved once a frame by the Animator.
+ *  Swing then repaints only the union of its old and new bounds over the board image.
+ *  The move itself is made at once, so the game never waits on the animation.  */
+public class Movement implements ActionListener {
+
+	private static final int STEP_MILLIS = 80;		//Time to cross one tile.
+	private static final int MAX_MILLIS = 480;		//Longest walk, so a walk ends before the next roll.
 
 	private Rooms destination;		//Current destination of piece.
 	private Rooms location;			//Current location of piece.
-	private int stepsToLocation;	//Distance to destination.
+	private int tile;				//BoardGrid tile piece stands on, when between rooms.
 	private int playerNum;			//Used for left-right translation to avoid piece overlap.
 	private JLabel gamePiece;		//Player's game token.
 
+	private boolean animated;		//Whether moves glide along their path, or jump.
+	private Animator.Task walk;		//Steps gamePiece along path once a frame.
+	private Point[] path;			//Points gamePiece passes through, starting where it stood.
+	private long walkStart;			//System.nanoTime() the walk began.
+	private int walkMillis;			//Length of the walk.
+
 
 	/** Constructor.
 	 * @param start Initial location.
@@ -22,13 +36,14 @@ public class Movement {
 		this.gamePiece = gamePiece;
 		destination= null;
 		location=start;
-		stepsToLocation=0;
+		tile=0;
 		this.playerNum = playerNum;
 	}
 
 	/** Get Methods.  */
 	public Rooms getDestination() { return destination; }
 	public Rooms getLocation()    { return location; }
+	public int getTile()		  { return tile; }
 	public int getXPos()		  { return location.getXPos() + 23*playerNum; }
 	public int getYPos()		  { return location.getYPos(); }
 
@@ -36,92 +51,136 @@ public class Movement {
 	public void setDestination(Rooms destination) { this.destination = destination; }
 	public void setLocation (Rooms location) { this.location = location; }
 
-	/** setDistance determines the distance between location and destination
-	 *  and assigns values 3, 7, or 1 for secret passageways.*/
-	public void setDistance(){
-		if (secretPassage())
-			stepsToLocation = 1;
-		else if(destination.getPosition().distance(location.getPosition())/20 >=12)
-			stepsToLocation = 7;
-		else
-			stepsToLocation = 3;
+	/** setAnimated makes later moves glide instead of jump. Call from the event dispatch thread when true.  */
+	public void setAnimated(boolean animated) {
+		this.animated = animated;
+		if(!animated)
+			finishWalk();
+	}
+
+	/** getStepsToDestination gives the exact # of steps left to the destination.  */
+	public int getStepsToDestination(){
+		return BoardGrid.stepsToDestination(location == null ? BoardGrid.NONE : location.ordinal(),
+				tile, destination.ordinal());
+	}
+
+	/** distance gives the # of steps between two rooms along the board grid, or 1 by secret passage.
+	 * @param from Starting room.
+	 * @param to Destination room.  */
+	public static int distance(Rooms from, Rooms to){
+		return BoardGrid.distance(from.ordinal(), to.ordinal());
 	}
 
 	/** gamePieceMove relocates gamePiece based on # of steps passed into method.
 	 * @param movement # of steps for gamePiece to move.  */
 	public void gamePieceMove(int movement){
-
-
-		//If piece starts in a room, find distance to destination.
-		if(isInARoom())
-			setDistance();
+		finishWalk();
+		int[] tiles = animated ? BoardGrid.path(location == null ? BoardGrid.NONE : location.ordinal(),
+				tile, destination.ordinal(), movement) : null;
+		Point from = gamePiece.getLocation();
 
 		//If piece makes it to destination, move game piece to destination
 		//Toggle hasMoved so turn can continue.
-		if(movement >= stepsToLocation) {
+		if(movement >= getStepsToDestination()) {
 
 			gamePiece.setLocation((destination.getPosition().x + 23*playerNum) , destination.getPosition().y);
 			location = destination;
 			destination = null;
-			stepsToLocation = 0;
+			tile = 0;
 		}
 
-		//If piece doesn't make it to destination.
+		//If piece doesn't make it to destination, walk it along the corridors.
 		else {
-			//If piece started turn in a room, relocate to a passageway.
-			if(isInARoom()) {
-				Point hallPoint = nearestHall().getPosition();
-				gamePiece.setLocation((hallPoint.x + 23 * playerNum), hallPoint.y);
-			}
-
-			//Readjust location and # of steps.
+			tile = BoardGrid.advance(location == null ? BoardGrid.NONE : location.ordinal(),
+					tile, destination.ordinal(), movement);
 			location = null;
-			stepsToLocation -= movement;
+			placeOnTile();
 		}
+
+		if(animated)
+			startWalk(from, tiles);
 	}
 
-	/** secretPassage determines if location is a room containing a secret passage.  */
-	public boolean secretPassage(){
-		return (location == Rooms.STUDY && destination == Rooms.KITCHEN)
-				|| (location == Rooms.KITCHEN && destination == Rooms.STUDY)
-				|| (location == Rooms.CONSERVATORY && destination == Rooms.LOUNGE)
-				|| (location == Rooms.LOUNGE && destination == Rooms.CONSERVATORY);
+	/** placeOnTile centres gamePiece on its tile, shifted slightly per player so stacked pieces stay visible.  */
+	private void placeOnTile(){
+		gamePiece.setLocation(tilePoint(tile));
 	}
 
-	/** nearestHall finds nearest passageway location by taking the closest point
-	 *  between the sum of the distance to location and distance to destination.  */
-	public Passages nearestHall(){
+	private Point tilePoint(int tile){
+		Icon icon = gamePiece.getIcon();
+		int width = icon == null ? 0 : icon.getIconWidth();
+		int height = icon == null ? 0 : icon.getIconHeight();
+		return new Point(BoardGrid.getX(tile) + (23 - width)/2 + 3*playerNum, BoardGrid.getY(tile) + (22 - height)/2);
+	}
 
-		//Set first passageway as closest point.
-		Passages nearest = Passages.HALL_A;
+	/** startWalk puts gamePiece back where it stood and glides it through the tiles to where the move left it.  */
+	private void startWalk(Point from, int[] tiles){
+		Point to = gamePiece.getLocation();
+		path = new Point[tiles.length + 2];
+		path[0] = from;
+		for(int i=0; i<tiles.length; i++)
+			path[i + 1] = tilePoint(tiles[i]);
+		path[path.length - 1] = to;
+
+		walkMillis = Math.min(MAX_MILLIS, STEP_MILLIS * (path.length - 1));
+		walkStart = System.nanoTime();
+		gamePiece.setLocation(from);
+		if(walk == null)
+			walk = new Animator.Task(0, this);
+		walk.start();
+	}
 
-		//Calculate distance between the three points.
-		double nearestValue = location.getPosition().distance(nearest.getPosition())
-				+ destination.getPosition().distance(nearest.getPosition());
+	/** finishWalk ends any walk in progress with gamePiece at its end.  */
+	private void finishWalk(){
+		if(walk != null && walk.isRunning()) {
+			walk.stop();
+			gamePiece.setLocation(path[path.length - 1]);
+		}
+	}
 
-		//Check all passageways for closest.
-		for(Passages pass : Passages.values()) {
-			double nextValue = location.getPosition().distance(pass.getPosition())
-					+ destination.getPosition().distance(pass.getPosition());
+	/** Steps the walk: places gamePiece between the two path points it is passing.  */
+	public void actionPerformed(ActionEvent e){
+		double progress = Math.min(1, (System.nanoTime() - walkStart) / 1e6 / walkMillis) * (path.length - 1);
+		int leg = Math.min(path.length - 2, (int) progress);
+		double t = progress - leg;
+		Point a = path[leg], b = path[leg + 1];
+		gamePiece.setLocation((int) Math.round(a.x + (b.x - a.x) * t), (int) Math.round(a.y + (b.y - a.y) * t));
+		if(progress >= path.length - 1)
+			walk.stop();
+	}
 
-			if (nextValue < nearestValue) {
-				nearest = pass;
-				nearestValue = nextValue;
-			}
-		}
-		return nearest;
+	/** secretPassage determines if location is a room containing a secret passage.  */
+	public boolean secretPassage(){
+		return BoardGrid.secretPassage(location.ordinal(), destination.ordinal());
+	}
+
+	/** capture packs this piece's location, destination and tile into a GameState.
+	 * @param state State to write into.
+	 * @param p Player's turn #.  */
+	public void capture(GameState state, int p){
+		state.setPosition(p, location == null ? GameState.NONE : location.ordinal(),
+				destination == null ? GameState.NONE : destination.ordinal(), tile);
+	}
+
+	/** restore unpacks this piece's position from a GameState and relocates the gamePiece.
+	 * @param state State to read from.
+	 * @param p Player's turn #.  */
+	public void restore(GameState state, int p){
+		location = state.getLocation(p) == GameState.NONE ? null : Rooms.values()[state.getLocation(p)];
+		destination = state.getDestination(p) == GameState.NONE ? null : Rooms.values()[state.getDestination(p)];
+		tile = state.getTile(p);
+
+		finishWalk();
+		if(location != null)
+			gamePiece.setLocation(getXPos(), getYPos());
+		else
+			placeOnTile();
 	}
 
 	/** Check if gamePiece is located in a room.  */
 	public boolean isInARoom(){ return location != null; }
 
 	/** getEquivalentRoom finds matching Card value to given Rooms eNum.  */
-	public Card getEquivalentRoom(){
-		for(Card card : Card.values())
-			if(card.getName().equals(location.getName()))
-				return card;
-
-		return null;
-	}
+	public Card getEquivalentRoom(){ return Equivalent.card(location); }
 
 }
@@ -8,21 +8,28 @@ import javax.swing.event.*;
 import AV_Components.AudioPlayer;
 import Game_Constants.*;
 
-/** Clue NoteBook Window.  */
-public class NoteBook extends JFrame implements ChangeListener, ActionListener{
+/** Clue NoteBook Window.
+ *  Once bound to a Deduction, each card shows what is known of it: who holds it, that it is in the
+ *  envelope or ruled out, or its chance of being in the envelope. Known cards are turned face down.
+ *  Only the cards whose knowledge changed are redrawn. Cards can still be turned by hand.  */
+public class NoteBook extends JFrame implements ChangeListener, ActionListener, Deduction.Listener{
 
     //Window Components.
     private JTabbedPane notebookTab;
     private JPanel suspectsTab, weaponsTab, locationsTab;
 
-    //Timers.
-    private Timer grow, shrink;
+    //Resizing animations, stepped once a frame.
+    private Animator.Task grow, shrink;
 
     //Card Back images.
-    private final ImageIcon cardBack = new ImageIcon("Images/Cards/Cardback/Cardback.jpg");
+    private final ImageIcon cardBack = Assets.cardBack();
 
     private AudioPlayer button, page;
 
+    private final JToggleButton[] cards = new JToggleButton[Card.values().length];     //By Card ordinal.
+    private Deduction deduction;
+    private String[] names;         //Player names, by turn #.
+
     /** Constructor.  */
     public NoteBook(){
 
@@ -37,8 +44,12 @@ public class NoteBook extends JFrame implements ChangeListener, ActionListener{
         //Populate panels.
         for(Card card : Card.values()){
             JToggleButton button = new JToggleButton();
-            button.setIcon(card.getImage());
+            button.setIcon(Assets.image(card));
             button.setSelectedIcon(cardBack);
+            button.setHorizontalTextPosition(JToggleButton.CENTER);
+            button.setVerticalTextPosition(JToggleButton.BOTTOM);
+            button.setFont(button.getFont().deriveFont(10f));
+            cards[card.ordinal()] = button;
             if(card.getType() == 1)
                 weaponsTab.add(button);
             else if(card.getType() == 2)
@@ -69,10 +80,48 @@ public class NoteBook extends JFrame implements ChangeListener, ActionListener{
         setLocation(800, 0);
         setVisible(false);
 
-        //Timers for resizing animation.
-        grow = new Timer(10, this);
-        shrink = new Timer(10, this);
+        //Resizing animations, at 2 pixels per millisecond.
+        grow = new Animator.Task(0, this);
+        shrink = new Animator.Task(0, this);
+
+    }
+
+    /** bind shows a player's Deduction from now on.
+     * @param deduction Knowledge of the NoteBook's owner, who is player 0.
+     * @param names Player names, by turn #.  */
+    public void bind(Deduction deduction, String[] names){
+        this.deduction = deduction;
+        this.names = names;
+        deduction.addListener(this);
+        cardsChanged(GameState.ALL_CARDS);
+    }
+
+    /** cardsChanged redraws the cards whose knowledge changed.  */
+    public void cardsChanged(int changed){
+        for(int card=0; card<cards.length; card++)
+            if((changed & 1 << card) != 0)
+                show(card);
+    }
 
+    private void show(int card){
+        JToggleButton button = cards[card];
+        int owner = deduction.getOwner(card);
+        if(owner == Deduction.ENVELOPE) {
+            button.setSelected(false);
+            button.setText("In the envelope");
+        }
+        else if(owner != Deduction.UNKNOWN) {
+            button.setSelected(true);
+            button.setText(owner == 0 ? "Yours" : names[owner]);
+        }
+        else if(deduction.isEliminated(card)) {
+            button.setSelected(true);
+            button.setText("Ruled out");
+        }
+        else {
+            button.setSelected(false);
+            button.setText(Math.round(100 * deduction.getEnvelopeChance(card)) + "%");
+        }
     }
 
     /** Triggers for resizing animations.  */
@@ -93,13 +142,13 @@ public class NoteBook extends JFrame implements ChangeListener, ActionListener{
     public void actionPerformed(ActionEvent e){
         if(e.getSource() == grow){
             if(getHeight() < 640)
-                setSize(380, getHeight()+20);
+                setSize(380, Math.min(640, getHeight() + 2*grow.getElapsed()));
             else
                 grow.stop();
         }
         else if(e.getSource() == shrink){
             if(getHeight() > 460)
-                setSize(380, getHeight()-20);
+                setSize(380, Math.max(460, getHeight() - 2*shrink.getElapsed()));
             else
                 shrink.stop();
         }
@@ -0,0 +1,229 @@
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/** ParameterSweep searches AIParameters and writes the best candidate to AIParameters.FILE.
+ *  Each candidate plays a Baseline with its parameters against two default Baselines, over the same
+ *  seeds as every other candidate, so candidates are compared on identical deals and seatings.
+ *  Every (candidate, seed) game is one work item, shared across all cores.
+ *
+ *  The search is a grid, optionally followed by generations of evolution: the best candidates so far
+ *  each have mutated children, played on the same seeds. The best score of many noisy candidates
+ *  overstates its real gain, so the top few are played again against the defaults on fresh seeds.
+ *  The winner is only written if its paired gain over the defaults has a 95% interval above zero.
+ *
+ *  Usage: java ParameterSweep [games per candidate] [generations of evolution]  */
+public class ParameterSweep {
+
+    private static final double[] INITIAL_WEIGHTS = {0.5, 1, 2, 4};
+    private static final double[] WEIGHT_BUMPS = {0, 0.2, 0.4, 0.8, 1.2, 1.6, 2.4};
+    private static final double[] THRESHOLDS = {0.8, 0.9, 1, 1.1, 1.2, 1.4};
+
+    private static final int PARENTS = 8;           //Best candidates kept as parents each generation.
+    private static final int CHILDREN = 3;          //Mutated children per parent.
+    private static final double MUTATION = 0.25;    //Standard deviation of the log-scale mutation.
+    private static final int VALIDATED = 5;         //Top candidates played again on fresh seeds.
+    private static final long FRESH_SEEDS = 1L << 40;   //First validation seed, far from the search seeds.
+    private static final double Z95 = 1.96;
+
+    private final List<AIParameters> candidates = new ArrayList<AIParameters>();
+    private final List<Tournament> results = new ArrayList<Tournament>();
+    private final Simulation.Strategy opponent = new Simulation.Baseline();
+
+    /** Constructor builds one Tournament per grid point.  */
+    public ParameterSweep() {
+        for (double initialWeight : INITIAL_WEIGHTS)
+            for (double weightBump : WEIGHT_BUMPS)
+                for (double threshold : THRESHOLDS)
+                    add(new AIParameters(initialWeight, weightBump, threshold));
+    }
+
+    private void add(AIParameters candidate) {
+        candidates.add(candidate);
+        results.add(tournament(candidate));
+    }
+
+    private Tournament tournament(AIParameters candidate) {
+        return new Tournament(new String[]{"candidate", "baseline", "baseline"},
+                new Simulation.Strategy[]{new Simulation.Baseline(candidate), opponent, opponent});
+    }
+
+    /** run plays every candidate not yet played on seeds 0 to games-1, on every core.  */
+    public void run(final long games) throws InterruptedException {
+        final List<Tournament> pending = new ArrayList<Tournament>();
+        for (Tournament result : results)
+            if (result.getGames() == 0)
+                pending.add(result);
+
+        parallel(games * pending.size(), new Item() {
+            public void play(long item) {
+                pending.get((int) (item / games)).play(item % games);
+            }
+        });
+    }
+
+    /** evolve runs generations of mutation and selection after the grid.
+     *  Children are played on the same seeds as every earlier candidate, so all scores stay comparable.  */
+    public void evolve(int generations, long games, Random rand) throws InterruptedException {
+        for (int g=0; g<generations; g++) {
+            for (int parent : getTop(PARENTS))
+                for (int c=0; c<CHILDREN; c++)
+                    add(mutate(candidates.get(parent), rand));
+            run(games);
+            System.out.printf("generation %d: best %.2f%% (%s)%n", g + 1, 100*winRate(getBest()), candidates.get(getBest()));
+        }
+    }
+
+    /** mutate scales each parameter by a log-normal factor.  */
+    private static AIParameters mutate(AIParameters parent, Random rand) {
+        return new AIParameters(
+                parent.getInitialWeight() * Math.exp(MUTATION * rand.nextGaussian()),
+                Math.max(0.05, parent.getWeightBump()) * Math.exp(MUTATION * rand.nextGaussian()),
+                Math.max(0.5, parent.getThreshold() * Math.exp(MUTATION / 2 * rand.nextGaussian())));
+    }
+
+    /** Validation is one candidate replayed against the defaults on fresh seeds.  */
+    public static final class Validation {
+        public final int candidate;
+        public final double winRate, defaultRate;   //Of the candidate seat, and of the defaults on the same seeds.
+        public final double gain, margin;           //Mean paired gain, and half its 95% interval.
+
+        Validation(int candidate, double winRate, double defaultRate, double gain, double margin) {
+            this.candidate = candidate;
+            this.winRate = winRate;
+            this.defaultRate = defaultRate;
+            this.gain = gain;
+            this.margin = margin;
+        }
+
+        /** isSignificant returns true if the whole 95% interval of the gain is above zero.  */
+        public boolean isSignificant() { return gain - margin > 0; }
+    }
+
+    /** validate plays the top candidates and the defaults on the same fresh seeds.
+     *  Each seed gives a paired difference of wins, so deal luck cancels out of the interval.
+     * @return Validations, best gain first.  */
+    public List<Validation> validate(int top, final long games) throws InterruptedException {
+        final int[] picked = getTop(top);
+        final Tournament[] replays = new Tournament[picked.length + 1];
+        for (int i=0; i<picked.length; i++)
+            replays[i] = tournament(candidates.get(picked[i]));
+        replays[picked.length] = tournament(AIParameters.DEFAULTS);
+
+        final AtomicIntegerArray won = new AtomicIntegerArray((int) (replays.length * games));
+        parallel(games * replays.length, new Item() {
+            public void play(long item) {
+                int replay = (int) (item / games);
+                long seed = item % games;
+                if (replays[replay].play(FRESH_SEEDS + seed) == 0)
+                    won.set((int) (replay * games + seed), 1);
+            }
+        });
+
+        List<Validation> validations = new ArrayList<Validation>();
+        int defaults = picked.length;
+        for (int i=0; i<picked.length; i++) {
+            double wins = 0, defaultWins = 0, sum = 0, squares = 0;
+            for (int seed=0; seed<games; seed++) {
+                int a = won.get((int) (i * games + seed));
+                int b = won.get((int) (defaults * games + seed));
+                wins += a;
+                defaultWins += b;
+                sum += a - b;
+                squares += (a - b) * (a - b);
+            }
+            double gain = sum / games;
+            double variance = (squares / games - gain * gain) * games / Math.max(1, games - 1);
+            validations.add(new Validation(picked[i], wins / games, defaultWins / games, gain,
+                    Z95 * Math.sqrt(variance / games)));
+        }
+        Collections.sort(validations, new Comparator<Validation>() {
+            public int compare(Validation a, Validation b) {
+                return Double.compare(b.gain, a.gain);
+            }
+        });
+        return validations;
+    }
+
+    /** Item is one unit of parallel work.  */
+    private interface Item {
+        void play(long item);
+    }
+
+    /** parallel plays items 0 to total-1 on every core.  */
+    private static void parallel(final long total, final Item work) throws InterruptedException {
+        final AtomicLong next = new AtomicLong();
+        Thread[] workers = new Thread[Runtime.getRuntime().availableProcessors()];
+
+        for (int t=0; t<workers.length; t++) {
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (long item = next.getAndIncrement(); item < total; item = next.getAndIncrement())
+                        work.play(item);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+    }
+
+    /** getBest returns the candidate with the highest win rate.  */
+    public int getBest() { return getTop(1)[0]; }
+
+    /** getTop returns the candidates with the highest win rates, best first.  */
+    public int[] getTop(int count) {
+        Integer[] order = new Integer[candidates.size()];
+        for (int i=0; i<order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Double.compare(winRate(b), winRate(a));
+            }
+        });
+
+        int[] top = new int[Math.min(count, order.length)];
+        for (int i=0; i<top.length; i++)
+            top[i] = order[i];
+        return top;
+    }
+
+    public double winRate(int candidate) {
+        Tournament result = results.get(candidate);
+        return (double) result.getWins(0) / result.getGames();
+    }
+
+    public AIParameters getCandidate(int candidate) { return candidates.get(candidate); }
+
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 20000;
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        AdminServer.startIfConfigured();
+
+        ParameterSweep sweep = new ParameterSweep();
+        long start = System.nanoTime();
+        sweep.run(games);
+        sweep.evolve(generations, games, new Random(games));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int best = sweep.getBest();
+        System.out.printf("%d candidates x %d games in %.1fs%n", sweep.candidates.size(), games, seconds);
+        System.out.printf("best:     %.2f%% (%s), before validation%n", 100*sweep.winRate(best), sweep.getCandidate(best));
+
+        System.out.printf("Validating the top %d on %d fresh seeds against the defaults (%s):%n",
+                VALIDATED, games, AIParameters.DEFAULTS);
+        List<Validation> validations = sweep.validate(VALIDATED, games);
+        for (Validation v : validations)
+            System.out.printf("  %.2f%% vs %.2f%%, gain %+.2f +/- %.2f points (%s)%n", 100*v.winRate, 100*v.defaultRate,
+                    100*v.gain, 100*v.margin, sweep.getCandidate(v.candidate));
+
+        Validation winner = validations.get(0);
+        if (!winner.isSignificant()) {
+            System.out.println("No candidate beats the defaults with 95% confidence. " + AIParameters.FILE + " not written.");
+            return;
+        }
+        sweep.getCandidate(winner.candidate).save(AIParameters.FILE, String.format(
+                "ParameterSweep, %d games per candidate, validated on %d fresh seeds: %.2f%% vs %.2f%% for the defaults, gain %+.2f +/- %.2f points",
+                games, games, 100*winner.winRate, 100*winner.defaultRate, 100*winner.gain, 100*winner.margin));
+        System.out.println("Written to " + AIParameters.FILE);
+    }
+}
@@ -23,7 +23,7 @@ public class Player {
 
 		playerIcon = gamePiece.getCard();
 		this.gamePiece = new JLabel();
-		this.gamePiece.setIcon(gamePiece.getImage());
+		this.gamePiece.setIcon(Assets.image(gamePiece));
 		hand = h;
 		playerNum = num;
 		name = playerIcon.getName();
@@ -0,0 +1,211 @@
+import AV_Components.AssetPack;
+import AV_Components.CustomFont;
+import Game_Constants.*;
+import javax.swing.*;
+import java.io.*;
+import java.util.*;
+
+/** Preloader prepares MainUI while the intro and character selection are showing,
+ *  so the game appears as soon as the last character is picked.
+ *      Off the EDT: decodes the images into Assets, loads the Console font,
+ *      and builds the movement and AI tables held in class initializers.
+ *      Then deals the game. The deal draws on Seeds in the same order MainUI did, and does not
+ *      depend on the picks, so a seeded game deals the same cards either way.
+ *      Then, on the EDT: builds the NoteBook, the Guess windows and Console for the user's hand,
+ *      and the Board without pieces. MainUI adds the picked characters to them.
+ *      Last, off the EDT: rewrites the AssetPack if any of its sources changed, for the next start.
+ *  Anything not ready when MainUI asks for it is built there as before.  */
+public final class Preloader {
+
+    //Images shown by the intro, Board, Console and NoteBook, in the order they are needed.
+    private static final String[] FILES = {
+            "Images/Display/Main Menu/TitleCourse.png",
+            "Images/Display/Main Menu/Title.png",
+            "Images/Display/Board Resized.jpeg",
+            "Images/Display/flip1.png",
+            "Images/Display/flip2.png",
+            "Images/Display/Paper.jpg",
+            "Images/Display/CardIcon Small.png",
+            "Images/Display/SpeechIcon Small.png"};
+
+    //Other images kept in the AssetPack. Pathways are left to decode on demand:
+    //as raw pixels they would be about 100MB, and none are needed to start.
+    private static final String[] PACKED = {
+            "Images/Display/Main Menu/BlackOut.png",
+            "Images/Display/Main Menu/win_screen.png",
+            "Images/Display/Main Menu/lose_screen.png"};
+
+    /** Deal is one game's dice Random, Deck, envelope and hands.  */
+    public static final class Deal {
+
+        private final Random rand;
+        private final Deck deck;
+        private final Card[] envelope;
+        private final List<ArrayList<Card>> hands = new ArrayList<ArrayList<Card>>();
+
+        /** Constructor deals as MainUI always has: the envelope, then the AI hands, then the user's.  */
+        private Deal() {
+            rand = Seeds.next();
+            deck = new Deck(Seeds.next());
+            envelope = deck.fillEnvelope();
+            ArrayList<Card> first = deck.dealHand();
+            ArrayList<Card> second = deck.dealHand();
+            hands.add(deck.dealHand());
+            hands.add(first);
+            hands.add(second);
+        }
+
+        /** Get Methods.  */
+        public Random getRand()                 { return rand; }
+        public Deck getDeck()                   { return deck; }
+        public Card[] getEnvelope()             { return envelope; }
+        public ArrayList<Card> getHand(int p)   { return hands.get(p); }
+    }
+
+    private static Thread worker;
+    private static Deal deal;               //Dealt during the intro, waiting for MainUI.
+    private static boolean dealTaken;       //MainUI has dealt, so nothing more is dealt ahead.
+
+    //Built on the EDT, waiting for MainUI.
+    private static NoteBook noteBook;
+    private static Board board;
+    private static Console console;
+    private static final HashMap<String, Guess> guesses = new HashMap<String, Guess>();
+    private static ArrayList<Card> builtFor;    //Hand shown by the Console and Guess windows.
+
+    private Preloader() {}
+
+    /** start begins preloading on a low priority background thread. Later calls do nothing.  */
+    public static synchronized void start() {
+        if (worker != null)
+            return;
+
+        worker = new Thread(new Runnable() {
+            public void run() {
+                load();
+                final Deal dealt = dealAhead();
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        build(dealt);
+                    }
+                });
+                pack();
+            }
+        }, "Preloader");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    /** load decodes images and fills tables. Safe off the EDT: no Swing components are built.  */
+    private static void load() {
+        for (String file : FILES)
+            Assets.image(file);
+        for (GamePiece piece : GamePiece.values())
+            Assets.image(piece);
+        for (Card card : Card.values())
+            Assets.image(card);
+        for (Dice side : Dice.values())
+            Assets.image(side);
+        Assets.cardBack();
+        CustomFont.getFont();
+
+        //Tables built when these classes initialize.
+        Reachability.expectedTurns(0, 0);
+        AIParameters.load();
+        if ("infogain".equals(System.getProperty("clue.ai")))
+            InformationGain.score(0, 0, 0, 0, 0);
+    }
+
+    /** dealAhead deals the game, unless MainUI already has.
+     * @return Deal waiting for MainUI, or null.  */
+    private static synchronized Deal dealAhead() {
+        if (!dealTaken && deal == null)
+            deal = new Deal();
+        return dealTaken ? null : deal;
+    }
+
+    /** build makes the windows and panels that do not depend on the picks. Runs on the EDT,
+     *  where MainUI also runs, so it either finishes before MainUI takes them or is skipped.  */
+    private static void build(Deal dealt) {
+        if (noteBook == null)
+            noteBook = new NoteBook();
+        if (dealt == null || isDealTaken() || board != null)
+            return;
+
+        ArrayList<Card> hand = dealt.getHand(0);
+        guesses.put(Hub.ASSUMPTION, new Guess(Hub.ASSUMPTION, hand));
+        guesses.put(Hub.ACCUSATION, new Guess(Hub.ACCUSATION, hand));
+        console = new Console(hand);
+        board = new Board();
+        builtFor = hand;
+    }
+
+    private static synchronized boolean isDealTaken() { return dealTaken; }
+
+    /** pack writes the AssetPack for the next start if it is missing or out of date.
+     *  The atlas is already built by load.  */
+    private static void pack() {
+        ArrayList<String> files = new ArrayList<String>(Arrays.asList(FILES));
+        files.addAll(Arrays.asList(PACKED));
+        files.add(Atlas.IMAGE.getPath());
+        String[] sounds = new File("Audio").list();
+        if (sounds != null)
+            for (String sound : sounds)
+                if (sound.endsWith(".wav"))
+                    files.add("Audio/" + sound);
+
+        String[] all = files.toArray(new String[files.size()]);
+        if (AssetPack.isCurrent(all))
+            return;
+        try {
+            AssetPack.build(all);
+        }
+        catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** noteBook hands over the NoteBook built during the intro, or builds one if it is not ready.
+     *  Call on the event dispatch thread.  */
+    public static NoteBook noteBook() {
+        NoteBook built = noteBook;
+        noteBook = null;
+        return built != null ? built : new NoteBook();
+    }
+
+    /** deal hands over the game dealt during the intro, or deals one now if it is not ready.  */
+    public static synchronized Deal deal() {
+        dealTaken = true;
+        Deal dealt = deal != null ? deal : new Deal();
+        deal = null;
+        return dealt;
+    }
+
+    /** guess hands over a Guess window built during the intro, or builds one for a different hand.
+     *  Call on the event dispatch thread.  */
+    public static Guess guess(String title, ArrayList<Card> hand) {
+        Guess built = guesses.remove(title);
+        if (built != null && hand.equals(builtFor))
+            return built;
+        if (built != null)
+            built.dispose();
+        return new Guess(title, hand);
+    }
+
+    /** console hands over the Console built during the intro, or builds one for a different hand.
+     *  Call on the event dispatch thread, then bind it.  */
+    public static Console console(ArrayList<Card> hand) {
+        Console built = console;
+        console = null;
+        return built != null && hand.equals(builtFor) ? built : new Console(hand);
+    }
+
+    /** board hands over the Board built during the intro, or builds one. Its pieces are added by MainUI.
+     *  Call on the event dispatch thread.  */
+    public static Board board() {
+        Board built = board;
+        board = null;
+        return built != null ? built : new Board();
+    }
+}
@@ -0,0 +1,107 @@
+import Game_Constants.*;
+
+/** Reachability precomputes what one die can reach from every position on the BoardGrid.
+ *  A position is a room (Rooms ordinal) or a corridor tile (ROOMS + tile), as held in a GameState.
+ *      reachable(position, roll):       bitmask of Rooms ordinals reachable this turn with that roll.
+ *      arrivalProbability(d, k):        chance of covering d steps within k turns.
+ *      expectedTurns(position, room):   mean # of turns to arrive.
+ *  Each answer is a single table read, or two when a distance is looked up first.  */
+public final class Reachability {
+
+    public static final int FACES = 6;          //One die, as rolled by MainUI and Simulation.
+    public static final int HORIZON = 12;       //Turns covered by the arrival table.
+
+    private static final int ROOMS = Rooms.values().length;
+    private static final int POSITIONS = ROOMS + BoardGrid.getTiles();
+
+    private static final short[] reachable = new short[POSITIONS * FACES];     //[position * FACES + roll - 1]
+    private static final float[] expected = new float[POSITIONS * ROOMS];      //[position * ROOMS + room]
+    private static final float[] arrival;                                       //[steps * (HORIZON + 1) + k]
+    private static final int maxSteps;
+
+    static {
+        int longest = 0;
+        for (int position=0; position<POSITIONS; position++)
+            for (int room=0; room<ROOMS; room++)
+                if (steps(position, room) < Short.MAX_VALUE)
+                    longest = Math.max(longest, steps(position, room));
+        maxSteps = longest;
+
+        //sums[k][s]: chance that k rolls add up to s.
+        double[][] sums = new double[maxSteps + 1][FACES * maxSteps + 1];
+        sums[0][0] = 1;
+        for (int k=1; k<=maxSteps; k++)
+            for (int s=0; s<=FACES * (k-1); s++)
+                for (int face=1; face<=FACES; face++)
+                    sums[k][s + face] += sums[k-1][s] / FACES;
+
+        //below[k][d]: chance that k rolls add up to less than d, i.e. not arrived after k turns.
+        double[][] below = new double[maxSteps + 1][maxSteps + 1];
+        for (int k=0; k<=maxSteps; k++)
+            for (int d=1; d<=maxSteps; d++)
+                below[k][d] = below[k][d-1] + sums[k][d-1];
+
+        arrival = new float[(maxSteps + 1) * (HORIZON + 1)];
+        double[] turns = new double[maxSteps + 1];
+        for (int d=0; d<=maxSteps; d++) {
+            for (int k=0; k<=HORIZON; k++)
+                arrival[d*(HORIZON + 1) + k] = (float) (1 - (k <= maxSteps ? below[k][d] : 0));
+
+            //E[turns] = sum over k of P(not arrived after k turns). Every roll covers at least 1 step.
+            for (int k=0; k<d; k++)
+                turns[d] += below[k][d];
+        }
+
+        for (int position=0; position<POSITIONS; position++)
+            for (int room=0; room<ROOMS; room++) {
+                int steps = steps(position, room);
+                expected[position*ROOMS + room] = steps > maxSteps ? Float.MAX_VALUE : (float) turns[steps];
+                if (steps == 0)
+                    continue;
+                for (int roll=1; roll<=FACES; roll++)
+                    if (steps <= roll)
+                        reachable[position*FACES + roll - 1] |= 1 << room;
+            }
+    }
+
+    private Reachability() {}
+
+    private static int steps(int position, int room) {
+        return position < ROOMS ? BoardGrid.distance(position, room) : BoardGrid.steps(position - ROOMS, room);
+    }
+
+    /** position converts a GameState location and tile into a position index.  */
+    public static int position(int location, int tile) {
+        return location != GameState.NONE ? location : ROOMS + tile;
+    }
+
+    /** reachable gives the Rooms ordinals, as a bitmask, that a roll carries a piece into this turn.  */
+    public static int reachable(int position, int roll) { return reachable[position*FACES + roll - 1]; }
+
+    /** arrivalProbability gives the chance of walking a # of steps within k turns.  */
+    public static double arrivalProbability(int steps, int k) {
+        if (steps > maxSteps)
+            return 0;
+        return arrival[steps*(HORIZON + 1) + Math.min(k, HORIZON)];
+    }
+
+    /** arrivalProbability gives the chance of a piece at a position arriving in a room within k turns.  */
+    public static double arrivalProbability(int position, int room, int k) {
+        return arrivalProbability(steps(position, room), k);
+    }
+
+    /** expectedTurns gives the mean # of turns for a piece at a position to arrive in a room.  */
+    public static double expectedTurns(int position, int room) { return expected[position*ROOMS + room]; }
+
+    /** nearest picks the room of a bitmask of Rooms ordinals with the fewest expected turns to arrive.
+     * @return Rooms ordinal, or -1 if the mask is empty.  */
+    public static int nearest(int position, int rooms) {
+        int best = -1;
+        for (int m = rooms; m != 0; m &= m - 1) {
+            int room = Integer.numberOfTrailingZeros(m);
+            if (best < 0 || expected[position*ROOMS + room] < expected[position*ROOMS + best])
+                best = room;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,289 @@
+import Game_Constants.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.swing.*;
+
+/** RenderBenchmark paints the game's panels into offscreen BufferedImages through scripted scenarios,
+ *  measuring paint time and bytes allocated per frame, and fails when a scenario exceeds its budget.
+ *  Board and Console paint under -Djava.awt.headless=true. Hub opens its pop-up JFrames when built,
+ *  so its scenario is skipped when headless.
+ *
+ *  Budgets are kept in Data/RenderBudget.properties as <scenario>.micros and <scenario>.bytes.
+ *  Usage: java RenderBenchmark [frames] [--update]
+ *      --update rewrites the budgets from this run, with headroom for noise.  */
+public class RenderBenchmark {
+
+    public static final File BUDGETS = new File("Data/RenderBudget.properties");
+
+    private static final int WARMUP = 100;              //Frames painted before measuring.
+    private static final double TIME_HEADROOM = 3.0;    //Budget multiples written by --update.
+    private static final double BYTES_HEADROOM = 1.5;
+
+    /** Scenario changes a component before each frame is painted.  */
+    interface Scenario {
+        void step(int frame);
+    }
+
+    /** DirtyScenario paints only the region its step changed, as Swing's RepaintManager does.  */
+    interface DirtyScenario extends Scenario {
+        Rectangle getDirty();
+    }
+
+    /** Result of one scenario.  */
+    static class Result {
+        final String name;
+        final double micros;    //Mean paint time per frame.
+        final long bytes;       //Mean bytes allocated per paint.
+
+        Result(String name, double micros, long bytes) {
+            this.name = name;
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+
+    private final int frames;
+    private final java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final java.util.List<Result> results = new ArrayList<Result>();
+
+    public RenderBenchmark(int frames) {
+        this.frames = frames;
+    }
+
+    /** Get Methods.  */
+    public java.util.List<Result> getResults() { return results; }
+
+    /** run builds the panels and plays every scenario. Call on the event dispatch thread.  */
+    public void run() {
+        Deck deck = new Deck(new Random(1));
+        deck.fillEnvelope();
+        GamePiece[] pieces = {GamePiece.SCARLET, GamePiece.PLUM, GamePiece.GREEN};
+        final Player[] players = new Player[pieces.length];
+        for (int p=0; p<players.length; p++)
+            players[p] = new Player(p, deck.dealHand(), pieces[p]);
+
+        //Built before the pieces move, since Console shows the room its player starts in.
+        final ViewBus bus = new ViewBus();
+        final Console console = new Console(players[0], bus);
+        final Board board = new Board(players);
+        final Rooms[] rooms = Rooms.values();
+
+        measure("board-idle", board, new Scenario() {
+            public void step(int frame) {}
+        });
+
+        measure("board-hover", board, new Scenario() {
+            public void step(int frame) {
+                Rooms from = rooms[frame / rooms.length % rooms.length];
+                Rooms to = rooms[frame % rooms.length];
+                if (from == to)
+                    board.resetBoardIcon();
+                else
+                    board.setPathwayIcon(from, to);
+            }
+        });
+
+        measure("board-pieces", board, new Scenario() {
+            public void step(int frame) {
+                Movement movement = players[frame % players.length].getMovement();
+                if (movement.isInARoom())
+                    movement.setDestination(rooms[(movement.getLocation().ordinal() + 1 + frame % 8) % rooms.length]);
+                movement.gamePieceMove(frame % 6 + 1);
+            }
+        });
+
+        //One piece gliding across the board, a frame of a walk per step.
+        final JLabel piece = players[0].getGamePiece();
+        measure("board-walk", board, new DirtyScenario() {
+            private Rectangle dirty;
+
+            public void step(int frame) {
+                Rectangle old = piece.getBounds();
+                piece.setLocation(100 + frame % 400, 100 + frame % 370);
+                dirty = SwingUtilities.convertRectangle(piece.getParent(), old.union(piece.getBounds()), board);
+            }
+
+            public Rectangle getDirty() { return dirty; }
+        });
+
+        measure("board-egg", board, new Scenario() {
+            public void step(int frame) {
+                board.showEggAt(580 - 5 * (frame % 43));
+            }
+        });
+
+        final Card[] cards = Card.values();
+        measure("console", console, new Scenario() {
+            public void step(int frame) {
+                console.setSelectedIndex(frame / 10 % 2);
+                console.setSuspectAssumption(cards[15 + frame % 6]);
+                console.setWeaponAssumption(cards[frame % 6]);
+                console.changeConsoleMessage(players[frame % players.length].getName() + " has made an assumption!");
+                bus.flush();
+            }
+        });
+
+        //A game log of 100k entries, scrolled to a different place every frame.
+        for (int i=0; i<100000; i++)
+            console.changeConsoleMessage(players[i % players.length].getName() + " moved to the "
+                    + rooms[i % rooms.length].getName() + ".");
+        bus.flush();
+        console.setSelectedIndex(2);
+        final JViewport log = ((JScrollPane) console.getComponentAt(2)).getViewport();
+        measure("console-log", console, new Scenario() {
+            public void step(int frame) {
+                int rows = console.getLog().getSize();
+                log.setViewPosition(new Point(0, (int) ((frame * 7919L) % rows) * 16));
+            }
+        });
+
+        if (GraphicsEnvironment.isHeadless())
+            System.out.println("hub: skipped, headless");
+        else {
+            final Hub hub = new Hub(players[0], bus);
+            measure("hub", hub, new Scenario() {
+                public void step(int frame) {
+                    hub.setDiceImage(Assets.image(Dice.values()[frame % 6]));
+                    hub.changeTurnIndicator(players[frame % players.length].getPlayerIcon());
+                    bus.flush();
+                }
+            });
+            hub.getNoteBookWindow().dispose();
+            hub.getAssumptionWindow().dispose();
+            hub.getAccusationWindow().dispose();
+        }
+    }
+
+    /** measure paints a component once per frame after each scenario step.  */
+    private void measure(String name, JComponent component, Scenario scenario) {
+        component.setSize(component.getPreferredSize());
+        layout(component);
+        BufferedImage target = new BufferedImage(Math.max(1, component.getWidth()), Math.max(1, component.getHeight()),
+                BufferedImage.TYPE_INT_RGB);
+
+        long thread = Thread.currentThread().getId();
+        long nanos = 0, bytes = 0;
+        for (int frame = -WARMUP; frame < frames; frame++) {
+            scenario.step(frame + WARMUP);
+            layout(component);
+
+            long startBytes = allocated(thread);
+            long start = System.nanoTime();
+            Graphics2D g = target.createGraphics();
+            if (scenario instanceof DirtyScenario)
+                g.clip(((DirtyScenario) scenario).getDirty());
+            component.paint(g);
+            g.dispose();
+            long end = System.nanoTime();
+            long endBytes = allocated(thread);
+
+            if (frame >= 0) {
+                nanos += end - start;
+                bytes += endBytes - startBytes;
+            }
+        }
+        results.add(new Result(name, nanos / 1e3 / frames, bytes / frames));
+    }
+
+    /** layout lays out a component tree that is not in a window.  */
+    private static void layout(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents())
+                layout(child);
+        }
+    }
+
+    private long allocated(long thread) {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread);
+        return 0;
+    }
+
+    /** check compares results with the budgets.
+     * @return Scenarios over budget, as messages.  */
+    public java.util.List<String> check(Properties budgets) {
+        java.util.List<String> failures = new ArrayList<String>();
+        for (Result result : results) {
+            String micros = budgets.getProperty(result.name + ".micros");
+            String bytes = budgets.getProperty(result.name + ".bytes");
+            if (micros != null && result.micros > Double.parseDouble(micros))
+                failures.add(String.format("%s: %.1f us per frame, budget %s", result.name, result.micros, micros));
+            if (bytes != null && result.bytes > Long.parseLong(bytes))
+                failures.add(String.format("%s: %d bytes per frame, budget %s", result.name, result.bytes, bytes));
+        }
+        return failures;
+    }
+
+    /** budgets returns budgets for this run's results, with headroom.  */
+    public Properties budgets() {
+        Properties budgets = new Properties();
+        for (Result result : results) {
+            budgets.setProperty(result.name + ".micros", String.format("%.0f", Math.ceil(result.micros * TIME_HEADROOM)));
+            budgets.setProperty(result.name + ".bytes", Long.toString((long) Math.ceil(result.bytes * BYTES_HEADROOM)));
+        }
+        return budgets;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 && !args[0].startsWith("--") ? Integer.parseInt(args[0]) : 500;
+        boolean update = Arrays.asList(args).contains("--update");
+
+        final RenderBenchmark benchmark = new RenderBenchmark(frames);
+        SwingUtilities.invokeAndWait(new Runnable() {
+            public void run() {
+                benchmark.run();
+            }
+        });
+
+        System.out.printf("%-14s %12s %12s%n", "scenario", "us/frame", "bytes/frame");
+        for (Result result : benchmark.getResults())
+            System.out.printf("%-14s %12.1f %12d%n", result.name, result.micros, result.bytes);
+
+        if (update) {
+            Properties budgets = new Properties();
+            if (BUDGETS.exists()) {
+                InputStream in = new FileInputStream(BUDGETS);
+                try {
+                    budgets.load(in);
+                }
+                finally {
+                    in.close();
+                }
+            }
+            budgets.putAll(benchmark.budgets());
+            OutputStream out = new FileOutputStream(BUDGETS);
+            try {
+                budgets.store(out, "RenderBenchmark budgets, per frame. Rewrite with: java RenderBenchmark --update");
+            }
+            finally {
+                out.close();
+            }
+            System.out.println("Budgets written to " + BUDGETS);
+            System.exit(0);
+        }
+
+        if (!BUDGETS.exists()) {
+            System.out.println("No budgets in " + BUDGETS + "; run with --update to record them.");
+            System.exit(0);
+        }
+
+        Properties budgets = new Properties();
+        InputStream in = new FileInputStream(BUDGETS);
+        try {
+            budgets.load(in);
+        }
+        finally {
+            in.close();
+        }
+
+        java.util.List<String> failures = benchmark.check(budgets);
+        for (String failure : failures)
+            System.out.println("OVER BUDGET " + failure);
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+}
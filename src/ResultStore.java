@@ -0,0 +1,211 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** ResultStore keeps tournament results as columns of primitives in memory-mapped files.
+ *  Each column is its own file, appended through mapped chunks of CHUNK_ROWS rows, and any number of
+ *  threads can append at once. A small footer file holds the row count and strategy names, so a store
+ *  opens without reading any column. Queries are tight scans over whole column chunks.
+ *
+ *  Columns: seed (long), winner seat (byte, -1 for none), winning GamePiece ordinal (byte, -1 for none),
+ *  turns (short), accusations (byte), and the strategy ID in each seat (byte).  */
+public class ResultStore {
+
+    public static final int SEATS = 3;
+
+    private static final int MAGIC = 0x434C5253;        //"CLRS", marks a footer.
+    private static final int CHUNK_ROWS = 1 << 20;      //Rows mapped at a time.
+
+    private static final String[] COLUMNS = {"seed", "winner", "piece", "turns", "accusations",
+            "strategy0", "strategy1", "strategy2"};
+    private static final int[] WIDTHS = {8, 1, 1, 2, 1, 1, 1, 1};
+    private static final int SEED = 0, WINNER = 1, PIECE = 2, TURNS = 3, ACCUSATIONS = 4, STRATEGY = 5;
+
+    private final File directory;
+    private final List<String> strategies;
+    private final FileChannel[] channels = new FileChannel[COLUMNS.length];
+    private final List<MappedByteBuffer[]> chunks = new ArrayList<MappedByteBuffer[]>();
+    private final AtomicLong rows;
+
+    /** Constructor opens or creates a store.
+     * @param directory Directory holding the column files and footer.
+     * @param strategies Names of the strategies, indexed by strategy ID. Must match an existing store.  */
+    public ResultStore(File directory, List<String> strategies) throws IOException {
+        this.directory = directory;
+        directory.mkdirs();
+
+        long existing = 0;
+        File footer = new File(directory, "footer");
+        if (footer.exists()) {
+            DataInputStream in = new DataInputStream(new FileInputStream(footer));
+            try {
+                if (in.readInt() != MAGIC)
+                    throw new IOException("Not a result store: " + directory);
+                existing = in.readLong();
+                List<String> stored = new ArrayList<String>();
+                for (int n = in.readInt(); n > 0; n--)
+                    stored.add(in.readUTF());
+                if (strategies == null)
+                    strategies = stored;
+                else if (!stored.equals(strategies))
+                    throw new IOException("Store holds strategies " + stored);
+            }
+            finally {
+                in.close();
+            }
+        }
+        this.strategies = strategies == null ? new ArrayList<String>() : new ArrayList<String>(strategies);
+        rows = new AtomicLong(existing);
+
+        for (int c=0; c<COLUMNS.length; c++)
+            channels[c] = new RandomAccessFile(new File(directory, COLUMNS[c] + ".col"), "rw").getChannel();
+    }
+
+    /** open opens an existing store, reading only its footer.  */
+    public static ResultStore open(File directory) throws IOException {
+        return new ResultStore(directory, null);
+    }
+
+    /** Get Methods.  */
+    public long getRows()              { return rows.get(); }
+    public List<String> getStrategies() { return strategies; }
+
+    /** append adds one game result. Safe to call from many threads.
+     * @param winner Winning seat, or -1.
+     * @param piece Winning GamePiece ordinal, or -1.
+     * @param seats Strategy ID in each seat.  */
+    public void append(long seed, int winner, int piece, int turns, int accusations, int[] seats) throws IOException {
+        long row = rows.getAndIncrement();
+        MappedByteBuffer[] chunk = chunk((int) (row / CHUNK_ROWS));
+        int index = (int) (row % CHUNK_ROWS);
+
+        chunk[SEED].putLong(index * 8, seed);
+        chunk[WINNER].put(index, (byte) winner);
+        chunk[PIECE].put(index, (byte) piece);
+        chunk[TURNS].putShort(index * 2, (short) Math.min(turns, Short.MAX_VALUE));
+        chunk[ACCUSATIONS].put(index, (byte) accusations);
+        for (int s=0; s<SEATS; s++)
+            chunk[STRATEGY + s].put(index, (byte) seats[s]);
+    }
+
+    /** chunk maps the given chunk of every column, mapping it on first use.  */
+    private synchronized MappedByteBuffer[] chunk(int n) throws IOException {
+        while (chunks.size() <= n) {
+            int next = chunks.size();
+            MappedByteBuffer[] chunk = new MappedByteBuffer[COLUMNS.length];
+            for (int c=0; c<COLUMNS.length; c++)
+                chunk[c] = channels[c].map(FileChannel.MapMode.READ_WRITE,
+                        (long) next * CHUNK_ROWS * WIDTHS[c], (long) CHUNK_ROWS * WIDTHS[c]);
+            chunks.add(chunk);
+        }
+        return chunks.get(n);
+    }
+
+    /** flush writes the footer, making every appended row visible to open().  */
+    public synchronized void flush() throws IOException {
+        for (MappedByteBuffer[] chunk : chunks)
+            for (MappedByteBuffer column : chunk)
+                column.force();
+
+        File temp = new File(directory, "footer.tmp");
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(temp));
+        try {
+            out.writeInt(MAGIC);
+            out.writeLong(rows.get());
+            out.writeInt(strategies.size());
+            for (String name : strategies)
+                out.writeUTF(name);
+        }
+        finally {
+            out.close();
+        }
+        File footer = new File(directory, "footer");
+        footer.delete();
+        if (!temp.renameTo(footer))
+            throw new IOException("Could not write footer in " + directory);
+    }
+
+    /** close flushes the store and releases its files.  */
+    public void close() throws IOException {
+        flush();
+        for (FileChannel channel : channels)
+            channel.close();
+    }
+
+    /** winsByStrategyAndSeat counts games and wins for each strategy in each seat.
+     * @return [strategy][seat][0] games played, [strategy][seat][1] games won.  */
+    public long[][][] winsByStrategyAndSeat() throws IOException {
+        long[][][] counts = new long[strategies.size()][SEATS][2];
+        long total = rows.get();
+        byte[] winner = new byte[CHUNK_ROWS];
+        byte[][] seats = new byte[SEATS][CHUNK_ROWS];
+
+        for (long start=0; start<total; start+=CHUNK_ROWS) {
+            int n = (int) Math.min(CHUNK_ROWS, total - start);
+            MappedByteBuffer[] chunk = chunk((int) (start / CHUNK_ROWS));
+            read(chunk[WINNER], winner, n);
+            for (int s=0; s<SEATS; s++)
+                read(chunk[STRATEGY + s], seats[s], n);
+
+            for (int s=0; s<SEATS; s++) {
+                byte[] strategy = seats[s];
+                for (int i=0; i<n; i++) {
+                    counts[strategy[i]][s][0]++;
+                    if (winner[i] == s)
+                        counts[strategy[i]][s][1]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /** averageTurns returns the mean game length, in turns.  */
+    public double averageTurns() throws IOException {
+        long total = rows.get();
+        long sum = 0;
+        short[] turns = new short[CHUNK_ROWS];
+
+        for (long start=0; start<total; start+=CHUNK_ROWS) {
+            int n = (int) Math.min(CHUNK_ROWS, total - start);
+            ShortBuffer column = chunk((int) (start / CHUNK_ROWS))[TURNS].duplicate().order(ByteOrder.BIG_ENDIAN).asShortBuffer();
+            column.get(turns, 0, n);
+            for (int i=0; i<n; i++)
+                sum += turns[i];
+        }
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /** read bulk-copies the first n bytes of a column chunk.  */
+    private static void read(MappedByteBuffer column, byte[] into, int n) {
+        ByteBuffer view = column.duplicate();
+        view.position(0);
+        view.get(into, 0, n);
+    }
+
+    /** report prints win rates by strategy and by seat.  */
+    public void report() throws IOException {
+        long[][][] counts = winsByStrategyAndSeat();
+        System.out.printf("%d games, %.1f turns on average%n", rows.get(), averageTurns());
+        System.out.printf("%-10s %8s %8s %8s %8s%n", "strategy", "overall", "seat 0", "seat 1", "seat 2");
+        for (int strategy=0; strategy<strategies.size(); strategy++) {
+            long games = 0, wins = 0;
+            StringBuilder bySeat = new StringBuilder();
+            for (int s=0; s<SEATS; s++) {
+                games += counts[strategy][s][0];
+                wins += counts[strategy][s][1];
+                bySeat.append(String.format(" %7.2f%%", percent(counts[strategy][s][1], counts[strategy][s][0])));
+            }
+            System.out.printf("%-10s %7.2f%%%s%n", strategies.get(strategy), percent(wins, games), bySeat);
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+
+    public static void main(String[] args) throws IOException {
+        open(new File(args.length > 0 ? args[0] : "results")).report();
+    }
+}
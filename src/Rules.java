@@ -0,0 +1,97 @@
+import Game_Constants.*;
+import java.util.*;
+
+/** Rules resolves assumptions and accusations on the live Player and AI objects.
+ *  MainUI and Fuzzer both play through it, so the fuzzer checks the same rules the game runs.  */
+public final class Rules {
+
+    public static final int NOBODY = -1;     //Disprover of an assumption nobody could disprove.
+
+    /** Disproval is the outcome of one assumption. An AI disproves at once, with its first matching card.
+     *  A human disprover is pending until show is called with the card they pick.  */
+    public static final class Disproval {
+
+        private final Player[] players;
+        private final int assumer;
+        private final ArrayList<Card> guess;
+        private final int disprover;
+        private Card shown;
+
+        private Disproval(Player[] players, int assumer, ArrayList<Card> guess, int disprover) {
+            this.players = players;
+            this.assumer = assumer;
+            this.guess = guess;
+            this.disprover = disprover;
+        }
+
+        /** Get Methods.  */
+        public int getAssumer()            { return assumer; }
+        public ArrayList<Card> getGuess()  { return guess; }
+        public int getDisprover()          { return disprover; }
+        public Card getShown()             { return shown; }
+
+        /** isPending returns true while a human disprover has yet to pick a card.  */
+        public boolean isPending() { return disprover != NOBODY && shown == null; }
+
+        /** show shows the assumer a card, and an AI assumer removes it from its Memory.
+         * @param card Card of the disprover's hand that was assumed.  */
+        public void show(Card card) {
+            if (!isPending())
+                throw new IllegalStateException("Nothing to disprove");
+            if (!guess.contains(card) || !players[disprover].getHand().contains(card))
+                throw new IllegalArgumentException(players[disprover].getName() + " cannot show " + card);
+
+            shown = card;
+            if (players[assumer] instanceof AI) {
+                ((AI) players[assumer]).removeCard(card);
+                ((AI) players[assumer]).observe(assumer, GameState.maskOf(guess), disprover, card.ordinal());
+            }
+        }
+
+        /** tell lets every AI observe the assumption. An assumer that is disproved observes when shown the card.  */
+        private void tell() {
+            for (int p=0; p<players.length; p++)
+                if (players[p] instanceof AI && (p != assumer || disprover == NOBODY))
+                    ((AI) players[p]).observe(assumer, GameState.maskOf(guess), disprover, Deduction.UNKNOWN);
+        }
+    }
+
+    private Rules() {}
+
+    /** assume resolves an assumption. Every other AI re-weights the assumed cards, then players are asked
+     *  clockwise from the assumer. If nobody can disprove, every AI narrows its Memory to the assumption.
+     * @param players All players, indexed by turn #.
+     * @param assumer Turn # of the assuming player.
+     * @param guess Suspect, weapon and room assumed.  */
+    public static Disproval assume(Player[] players, int assumer, ArrayList<Card> guess) {
+        for (int p=0; p<players.length; p++)
+            if (p != assumer && players[p] instanceof AI)
+                ((AI) players[p]).addWeight(guess);
+
+        int disprover = NOBODY;
+        for (int i=1; i<players.length && disprover == NOBODY; i++)
+            if (players[(assumer + i) % players.length].disproved(guess) != null)
+                disprover = (assumer + i) % players.length;
+
+        Disproval disproval = new Disproval(players, assumer, guess, disprover);
+        disproval.tell();
+        if (disprover == NOBODY) {
+            for (Player player : players)
+                if (player instanceof AI)
+                    ((AI) player).makeIrrefutable(guess, assumer);
+        }
+        else if (players[disprover] instanceof AI)
+            disproval.show(players[disprover].disproved(guess));
+        return disproval;
+    }
+
+    /** accusation gives an accusation in envelope order: weapon, the accuser's room, suspect.  */
+    public static Card[] accusation(Player accuser, Card suspect, Card weapon) {
+        return new Card[] {weapon, accuser.getMovement().getEquivalentRoom(), suspect};
+    }
+
+    /** isCorrect checks an accusation against the envelope.  */
+    public static boolean isCorrect(Card[] envelope, Card[] accusation) {
+        return Arrays.equals(envelope, accusation);
+    }
+}
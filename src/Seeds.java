@@ -0,0 +1,30 @@
+import java.util.Random;
+
+/** Seeds hands out the Randoms that decide a game: dice rolls, the deal and AI guesses.
+ *  With -Dclue.seed set, each Random is seeded from that seed in the order they are created,
+ *  so a game replays the same way at any speed. Otherwise every Random is unseeded.
+ *  A thread can also be reseeded, so headless drivers can play many seeded games at once.  */
+public final class Seeds {
+
+    private static final Long SEED = Long.getLong("clue.seed");
+    private static final Random master = SEED == null ? new Random() : new Random(SEED);
+    private static final ThreadLocal<Random> reseeded = new ThreadLocal<Random>();
+
+    private Seeds() {}
+
+    /** isSeeded returns true if games are being replayed from -Dclue.seed.  */
+    public static boolean isSeeded() { return SEED != null; }
+
+    /** reseed makes Randoms handed out on this thread follow a seed, as -Dclue.seed does.  */
+    public static void reseed(long seed) { reseeded.set(new Random(seed)); }
+
+    /** next returns a new Random for game logic.  */
+    public static Random next() {
+        Random thread = reseeded.get();
+        if (thread != null)
+            return new Random(thread.nextLong());
+        synchronized (master) {
+            return new Random(master.nextLong());
+        }
+    }
+}
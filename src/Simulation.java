@@ -0,0 +1,279 @@
+import Game_Constants.*;
+import java.util.*;
+
+/** Simulation plays Clue headlessly on a packed GameState, following the same turn rules as MainUI.
+ *  Each seat is driven by a Strategy. Every seat keeps a packed memory, like an AI.  */
+public class Simulation {
+
+    /** Strategy makes the decisions for one seat.  */
+    public interface Strategy {
+
+        /** chooseDestination picks where a player leaving a room goes next.
+         * @return Rooms ordinal.  */
+        int chooseDestination(GameState state, int p, Random rand);
+
+        /** chooseAssumption picks an assumption in the player's current room.
+         * @return Suspect Card ordinal << 8 | weapon Card ordinal.  */
+        int chooseAssumption(GameState state, int p, Random rand);
+    }
+
+    public static final int MAX_TURNS = 1000;   //Games longer than this end with no winner.
+
+    private final GameState state;
+    private final Strategy[] seats;
+    private final Random rand;
+
+    private int turns;          //Turns played so far.
+    private int accusations;    //Accusations made (a game ends on the first).
+    private int winner;         //Seat that accused correctly, or -1.
+    private boolean over;
+
+    /** Constructor.
+     * @param state Game to play. Modified in place.
+     * @param seats Strategy for each seat.
+     * @param rand Source of dice rolls and strategy randomness.  */
+    public Simulation(GameState state, Strategy[] seats, Random rand) {
+        this.state = state;
+        this.seats = seats;
+        this.rand = rand;
+        winner = -1;
+    }
+
+    /** Get Methods.  */
+    public GameState getState()  { return state; }
+    public int getTurns()        { return turns; }
+    public int getAccusations()  { return accusations; }
+    public int getWinner()       { return winner; }
+    public boolean isOver()      { return over; }
+
+    /** deal creates a new game with Deck's uniform bitmask deal.
+     * @param pieces Game piece of each seat, seat 0 first.
+     * @param rand Source of randomness for the deck.
+     * @return State at the start of seat 0's first turn.  */
+    public static GameState deal(GamePiece[] pieces, Random rand) {
+        GameState state = new GameState();
+        int[] hands = new int[pieces.length];
+        state.setEnvelope(Deck.deal(rand, hands));
+
+        for (int p=0; p<pieces.length; p++) {
+            state.setHand(p, hands[p]);
+            state.setMemory(p, GameState.ALL_CARDS & ~hands[p]);
+            state.setPosition(p, pieces[p].getRooms().ordinal(), GameState.NONE, 0);
+        }
+        return state;
+    }
+
+    /** playOut plays turns until a player accuses or MAX_TURNS is reached.
+     * @return Winning seat, or -1.  */
+    public int playOut() {
+        while (!over)
+            playTurn();
+        return winner;
+    }
+
+    /** playTurn plays the current player's whole turn, then passes the turn on.  */
+    public void playTurn() {
+        int p = state.getTurn();
+
+        //AI players pick a new destination whenever they start a turn in a room.
+        if (state.getLocation(p) != GameState.NONE)
+            setDestination(p, seats[p].chooseDestination(state, p, rand));
+
+        if (move(p, roll()))
+            finishInRoom(p);
+        nextTurn();
+    }
+
+    /** roll returns a dice roll between 1-6.  */
+    public int roll() { return rand.nextInt(6) + 1; }
+
+    /** setDestination assigns a new destination room to a player.  */
+    public void setDestination(int p, int room) {
+        state.setPosition(p, state.getLocation(p), room, state.getTile(p));
+    }
+
+    /** move advances a player's piece toward its destination, as Movement.gamePieceMove does.
+     * @param roll # of steps to move.
+     * @return True if the piece arrived in its destination room.  */
+    public boolean move(int p, int roll) {
+        int location = state.getLocation(p);
+        int destination = state.getDestination(p);
+        int tile = state.getTile(p);
+
+        if (roll >= BoardGrid.stepsToDestination(location, tile, destination)) {
+            state.setPosition(p, destination, GameState.NONE, 0);
+            return true;
+        }
+
+        state.setPosition(p, GameState.NONE, destination, BoardGrid.advance(location, tile, destination, roll));
+        return false;
+    }
+
+    /** finishInRoom makes an accusation if the player's memory is solved, or an assumption otherwise.  */
+    public void finishInRoom(int p) {
+        if (shouldAccuse(p))
+            accuse(p);
+        else {
+            int assumption = seats[p].chooseAssumption(state, p, rand);
+            assume(p, assumption >>> 8, assumption & 255);
+        }
+    }
+
+    /** shouldAccuse mirrors AI.shouldMakeAccusation: one card left of each type, and standing in that room.  */
+    public boolean shouldAccuse(int p) {
+        int memory = state.getMemory(p);
+        int location = state.getLocation(p);
+        return Integer.bitCount(memory & GameState.WEAPONS) == 1
+                && Integer.bitCount(memory & GameState.SUSPECTS) == 1
+                && Integer.bitCount(memory & GameState.ROOMS) == 1
+                && location != GameState.NONE
+                && (memory & GameState.ROOMS) == 1 << Equivalent.roomCard(location);
+    }
+
+    /** accuse checks the player's solved memory against the envelope. Any accusation ends the game.  */
+    public void accuse(int p) {
+        accusations++;
+        int guess = state.getMemory(p) & (GameState.WEAPONS | GameState.SUSPECTS)
+                | 1 << Equivalent.roomCard(state.getLocation(p));
+
+        if (guess == state.getEnvelope())
+            winner = p;
+        over = true;
+    }
+
+    /** assume makes an assumption in the player's current room and resolves disproval
+     *  clockwise from the assuming player, as MainUI.displayDisproval does.
+     * @return Seat that disproved, or -1.  */
+    public int assume(int p, int suspect, int weapon) {
+        int room = Equivalent.roomCard(state.getLocation(p));
+        int guess = 1 << suspect | 1 << weapon | 1 << room;
+        int players = seats.length;
+
+        //Other players re-weight the assumed cards.
+        for (int q=0; q<players; q++)
+            if (q != p)
+                for (int card : new int[]{suspect, weapon, room})
+                    if ((state.getMemory(q) & 1 << card) != 0)
+                        state.setBumps(q, card, state.getBumps(q, card) + 1);
+
+        //First player clockwise who holds a card shows the first match, as Player.disproved does.
+        //Everyone sees who could not disprove. Only the assumer sees the card shown.
+        for (int i=1; i<players; i++) {
+            int q = (p + i) % players;
+            int hand = state.getHand(q);
+            for (int card : new int[]{suspect, weapon, room})
+                if ((hand & 1 << card) != 0) {
+                    state.setMemory(p, removeCard(state.getMemory(p), state.getHand(p), card));
+                    state.setKnownHeld(p, q, state.getKnownHeld(p, q) | 1 << card);
+                    return q;
+                }
+            for (int o=0; o<players; o++)
+                state.setKnownLacks(o, q, state.getKnownLacks(o, q) | guess);
+        }
+
+        //Nobody disproved: every player narrows memory, as AI.makeIrrefutable does.
+        for (int q=0; q<players; q++) {
+            int memory = state.getMemory(q);
+            int types = GameState.WEAPONS | GameState.SUSPECTS;
+            if (q == p && (memory & 1 << room) != 0)
+                types |= GameState.ROOMS;
+
+            for (int type : new int[]{GameState.WEAPONS, GameState.ROOMS, GameState.SUSPECTS})
+                if ((types & type) != 0 && (memory & guess & type) != 0)
+                    memory &= guess | ~type;
+            state.setMemory(q, memory);
+        }
+        return -1;
+    }
+
+    /** removeCard mirrors AI.removeCard: showing the last card left of a type starts that type over.
+     * @return Memory without the card.  */
+    static int removeCard(int memory, int hand, int card) {
+        int type = (GameState.WEAPONS & 1 << card) != 0 ? GameState.WEAPONS
+                : (GameState.ROOMS & 1 << card) != 0 ? GameState.ROOMS : GameState.SUSPECTS;
+        if ((memory & type) == 1 << card)
+            return memory | type & ~hand & ~(1 << card);
+        return memory & ~(1 << card);
+    }
+
+    /** nextTurn passes the turn clockwise.  */
+    public void nextTurn() {
+        state.setTurn((state.getTurn() + 1) % seats.length);
+        turns++;
+        if (turns >= MAX_TURNS)
+            over = true;
+    }
+
+    /** Baseline Strategy mirrors the AI class: guesses are drawn from the cards weighted above average.  */
+    public static class Baseline implements Strategy {
+
+        private final AIParameters params;
+
+        /** Constructor with the default weighting.  */
+        public Baseline() {
+            this(AIParameters.DEFAULTS);
+        }
+
+        /** Constructor.
+         * @param params Card weighting, as used by the AI.  */
+        public Baseline(AIParameters params) {
+            this.params = params;
+        }
+
+        /** chooseDestination mirrors AI.setDestination: the likely room with the fewest expected turns to arrive.  */
+        public int chooseDestination(GameState state, int p, Random rand) {
+            int location = state.getLocation(p);
+
+            int rooms = 0;
+            for (int m = candidates(state, p, state.getMemory(p) & GameState.ROOMS); m != 0; m &= m - 1)
+                rooms |= 1 << Equivalent.cardRoom(Integer.numberOfTrailingZeros(m));
+            rooms &= ~(1 << location);
+
+            //Only one room left, and player is in it: leave for the quickest round trip.
+            if (rooms == 0)
+                return BoardGrid.closestRoom(location);
+            return Reachability.nearest(Reachability.position(location, state.getTile(p)), rooms);
+        }
+
+        public int chooseAssumption(GameState state, int p, Random rand) {
+            return guess(state, p, GameState.SUSPECTS, rand) << 8 | guess(state, p, GameState.WEAPONS, rand);
+        }
+
+        /** guess mirrors AIMemory.getAICardGuess on a packed memory.
+         * @param type Card bitmask of the type to guess from.
+         * @return Card ordinal.  */
+        public int guess(GameState state, int p, int type, Random rand) {
+            int mask = state.getMemory(p) & type;
+
+            //Fall back to the whole type if memory has been emptied.
+            if (mask == 0)
+                mask = type;
+
+            int above = candidates(state, p, mask);
+            if (Integer.bitCount(above) == 1)
+                return Integer.numberOfTrailingZeros(above);
+            return GameState.nthCard(above, rand.nextInt(Integer.bitCount(above)));
+        }
+
+        /** candidates mirrors AIMemory.getCandidateMask: cards weighted above the threshold, or all if none are.
+         * @param mask Cards in memory to choose between.  */
+        public int candidates(GameState state, int p, int mask) {
+            int count = Integer.bitCount(mask);
+            if (count <= 1)
+                return mask;
+
+            double total = 0;
+            for (int m = mask; m != 0; m &= m - 1)
+                total += params.weight(state.getBumps(p, Integer.numberOfTrailingZeros(m)));
+            double cutoff = total / count * params.getThreshold();
+
+            int above = 0;
+            for (int m = mask; m != 0; m &= m - 1) {
+                int card = Integer.numberOfTrailingZeros(m);
+                if (params.weight(state.getBumps(p, card)) > cutoff)
+                    above |= 1 << card;
+            }
+            return above == 0 ? mask : above;
+        }
+    }
+}
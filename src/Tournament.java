@@ -0,0 +1,210 @@
+import Game_Constants.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/** Tournament plays headless games between Strategies on every core and reports win rates.
+ *  Strategies rotate through the seats so no strategy keeps the first move.
+ *
+ *  Usage: java Tournament games strategy0 strategy1 strategy2 [result store directory]
+ *  where a strategy is baseline, tuned, infogain, or mcts.  */
+public class Tournament {
+
+    private static final GamePiece[] PIECES = {GamePiece.SCARLET, GamePiece.PLUM, GamePiece.GREEN};
+
+    private final String[] names;
+    private final Simulation.Strategy[] strategies;
+    private final AtomicLongArray wins;
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong noWinner = new AtomicLong();
+
+    private ResultStore store;          //Optional record of every game.
+    private int[] storeIDs;             //Store's strategy ID of each strategy.
+
+    /** Constructor.
+     * @param names Strategy name for each seat.  */
+    public Tournament(String[] names) {
+        this(names, strategies(names));
+    }
+
+    /** Constructor.
+     * @param names Name of each strategy, for reports.
+     * @param strategies Strategy for each seat.  */
+    public Tournament(String[] names, Simulation.Strategy[] strategies) {
+        this.names = names;
+        this.strategies = strategies.clone();
+        wins = new AtomicLongArray(names.length);
+
+        //Time every decision while metrics are being served.
+        if (Metrics.isEnabled())
+            for (int i=0; i<strategies.length; i++)
+                this.strategies[i] = new Timed(strategies[i]);
+    }
+
+    /** Timed records the latency of each decision of a Strategy in Metrics.AI_DECISION.  */
+    private static class Timed implements Simulation.Strategy {
+
+        private final Simulation.Strategy strategy;
+
+        Timed(Simulation.Strategy strategy) { this.strategy = strategy; }
+
+        public int chooseDestination(GameState state, int p, Random rand) {
+            long start = System.nanoTime();
+            int room = strategy.chooseDestination(state, p, rand);
+            Metrics.AI_DECISION.since(start);
+            return room;
+        }
+
+        public int chooseAssumption(GameState state, int p, Random rand) {
+            long start = System.nanoTime();
+            int assumption = strategy.chooseAssumption(state, p, rand);
+            Metrics.AI_DECISION.since(start);
+            return assumption;
+        }
+    }
+
+    /** Get Methods.  */
+    public long getGames()           { return games.get(); }
+    public long getWins(int strategy) { return wins.get(strategy); }
+
+    /** setStore records every game played from now on into a ResultStore.
+     *  Strategies with the same name share a strategy ID.  */
+    public void setStore(ResultStore store) {
+        List<String> ids = store.getStrategies();
+        storeIDs = new int[names.length];
+        for (int i=0; i<names.length; i++) {
+            if (!ids.contains(names[i]))
+                ids.add(names[i]);
+            storeIDs[i] = ids.indexOf(names[i]);
+        }
+        this.store = store;
+    }
+
+    private static Simulation.Strategy[] strategies(String[] names) {
+        Simulation.Strategy[] strategies = new Simulation.Strategy[names.length];
+        for (int i=0; i<names.length; i++)
+            strategies[i] = strategy(names[i]);
+        return strategies;
+    }
+
+    /** strategy builds a Strategy by name.  */
+    public static Simulation.Strategy strategy(String name) {
+        if (name.equals("baseline"))
+            return new Simulation.Baseline();
+        else if (name.equals("tuned"))
+            return new Simulation.Baseline(AIParameters.load());
+        else if (name.equals("infogain"))
+            return new InformationGain();
+        else if (name.equals("mcts"))
+            return new MonteCarloSearch(1, 20);
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+
+    /** play runs one game from a seed. Strategy i sits in seat (i + seed) % 3.
+     * @return Index of the winning strategy, or -1.  */
+    public int play(long seed) {
+        Random rand = new Random(seed);
+        int shift = (int) Math.floorMod(seed, (long) strategies.length);
+
+        Simulation.Strategy[] seats = new Simulation.Strategy[strategies.length];
+        for (int i=0; i<strategies.length; i++)
+            seats[(i + shift) % seats.length] = strategies[i];
+
+        Metrics.gameStarted();
+        Simulation game = new Simulation(Simulation.deal(PIECES, rand), seats, rand);
+        int winner = game.playOut();
+        games.incrementAndGet();
+        Metrics.gameFinished();
+
+        if (store != null)
+            record(seed, shift, game);
+
+        if (winner < 0) {
+            noWinner.incrementAndGet();
+            return -1;
+        }
+
+        int strategy = Math.floorMod(winner - shift, strategies.length);
+        wins.incrementAndGet(strategy);
+        return strategy;
+    }
+
+    /** record appends one finished game to the store.  */
+    private void record(long seed, int shift, Simulation game) {
+        int[] seatIDs = new int[strategies.length];
+        for (int i=0; i<strategies.length; i++)
+            seatIDs[(i + shift) % seatIDs.length] = storeIDs[i];
+
+        int winner = game.getWinner();
+        try {
+            store.append(seed, winner, winner < 0 ? -1 : PIECES[winner].ordinal(),
+                    game.getTurns(), game.getAccusations(), seatIDs);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** run plays seeds 0 to count-1 in parallel on every core.  */
+    public void run(final long count) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        final AtomicLong next = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+
+        for (int t=0; t<threads; t++) {
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (long seed = next.getAndIncrement(); seed < count; seed = next.getAndIncrement())
+                        play(seed);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+    }
+
+    /** report prints the win rate of each strategy, and the search throughput of each MonteCarloSearch.  */
+    public void report() {
+        long total = games.get();
+        for (int i=0; i<names.length; i++)
+            System.out.printf("%-10s %6.2f%%%n", names[i], 100.0 * wins.get(i) / total);
+        System.out.printf("%-10s %6.2f%%%n", "no winner", 100.0 * noWinner.get() / total);
+
+        for (int i=0; i<names.length; i++) {
+            Simulation.Strategy strategy = strategies[i] instanceof Timed ? ((Timed) strategies[i]).strategy : strategies[i];
+            if (strategy instanceof MonteCarloSearch) {
+                MonteCarloSearch search = (MonteCarloSearch) strategy;
+                System.out.printf("%-10s %d rollouts, %.0f rollouts/s of decision time%n", names[i],
+                        search.getRollouts(), search.getRolloutsPerSecond());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 100000;
+        AdminServer.startIfConfigured();
+        String[] names = args.length > 3 ? Arrays.copyOfRange(args, 1, 4)
+                : new String[]{"infogain", "baseline", "baseline"};
+
+        Tournament tournament = new Tournament(names);
+        ResultStore store = null;
+        if (args.length > 4) {
+            store = new ResultStore(new File(args[4]), null);
+            tournament.setStore(store);
+        }
+
+        long start = System.nanoTime();
+        tournament.run(count);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        tournament.report();
+        System.out.printf("%d games in %.2fs (%.0f games/s)%n", count, seconds, count / seconds);
+
+        if (store != null) {
+            store.close();
+            store.report();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import javax.swing.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/** ViewBus carries display changes from the game to its Swing views, applied once a frame.
+ *  Publishing only records the latest value of a Property, lock-free and from any thread.
+ *  On the next Animator frame the EDT hands each Property that changed to every View, once,
+ *  so a burst of changes within one action or a fast-forwarded run costs a single update.  */
+public final class ViewBus {
+
+    /** Property is one displayed value, and the type published for it.  */
+    public enum Property {
+        DICE,           //ImageIcon shown in the Hub's dice window.
+        TURN,           //Card of the player whose turn it is.
+        MESSAGE,        //String in the Console, "" once confirmed.
+        TAB,            //Integer index of the Console tab shown.
+        SUSPECT,        //Card of each assumption slot, or null for the card back.
+        WEAPON,
+        ROOM,
+        LOG             //Long # of entries appended to the Console's ConsoleLog.
+    }
+
+    /** View shows published values.  */
+    public interface View {
+        /** apply shows the latest value of a Property. Called on the event dispatch thread.  */
+        void apply(Property property, Object value);
+    }
+
+    private static final Property[] PROPERTIES = Property.values();
+
+    private final AtomicReferenceArray<Object> latest = new AtomicReferenceArray<Object>(PROPERTIES.length);
+    private final AtomicInteger changed = new AtomicInteger();         //Bit per Property published since the last flush.
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final List<View> views = new CopyOnWriteArrayList<View>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private Animator.Task frame;       //Created on the EDT by the first schedule.
+
+    /** addView registers a View for every later change.  */
+    public void addView(View view) { views.add(view); }
+
+    /** publish records a new value. The views show it on the next frame.  */
+    public void publish(Property property, Object value) {
+        latest.set(property.ordinal(), value);
+        int bit = 1 << property.ordinal();
+        for (int bits = changed.get(); (bits & bit) == 0 && !changed.compareAndSet(bits, bits | bit); bits = changed.get())
+            ;
+        published.increment();
+        if (scheduled.compareAndSet(false, true)) {
+            if (SwingUtilities.isEventDispatchThread())
+                schedule();
+            else
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        schedule();
+                    }
+                });
+        }
+    }
+
+    private void schedule() {
+        if (frame == null) {
+            frame = new Animator.Task(0, new ActionListener() {
+                public void actionPerformed(ActionEvent e) {
+                    flush();
+                }
+            });
+            frame.setRepeats(false);
+        }
+        frame.start();
+    }
+
+    /** flush shows every pending change now. Call on the event dispatch thread.  */
+    public void flush() {
+        scheduled.set(false);
+        int bits = changed.getAndSet(0);
+        for (Property property : PROPERTIES)
+            if ((bits & 1 << property.ordinal()) != 0) {
+                Object value = latest.get(property.ordinal());
+                for (View view : views)
+                    view.apply(property, value);
+                applied.increment();
+            }
+    }
+
+    /** Get Methods.  */
+    public long getPublished() { return published.sum(); }
+    public long getApplied()   { return applied.sum(); }
+}